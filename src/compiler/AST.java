@@ -5,6 +5,11 @@ import java.util.*;
 import compiler.exc.TypeException;
 import compiler.lib.*;
 
+// I nodi che nominano un identificatore ne portano sia il testo sia l'identificatore intero nel NamePool
+// della compilazione. L'intero e' la chiave delle tabelle (symbol table, tabelle virtuali, relazioni tra
+// classi), indicizzate per array. Il testo, che e' l'istanza unica del pool (un solo riferimento per nodo),
+// serve ai messaggi di errore, alle etichette del codice generato e alle stampe, prodotti da visitor che
+// non hanno accesso al pool.
 public class AST {
 
     public static class ProgLetInNode extends Node {
@@ -37,13 +42,16 @@ public class AST {
 
     public static class FunNode extends DecNode {
         final String id;
+        final int name;
         final TypeNode retType;
         final List<ParNode> parlist;
         final List<DecNode> declist;
         final Node exp;
+        STentry entry; // entry della dichiarazione, impostata dalla SymbolTableASTVisitor
 
-        FunNode(String i, TypeNode rt, List<ParNode> pl, List<DecNode> dl, Node e) {
+        FunNode(String i, int n, TypeNode rt, List<ParNode> pl, List<DecNode> dl, Node e) {
             id = i;
+            name = n;
             retType = rt;
             parlist = Collections.unmodifiableList(pl);
             declist = Collections.unmodifiableList(dl);
@@ -60,9 +68,11 @@ public class AST {
 
     public static class ParNode extends DecNode {
         final String id;
+        final int name;
 
-        ParNode(String i, TypeNode t) {
+        ParNode(String i, int n, TypeNode t) {
             id = i;
+            name = n;
             type = t;
         }
 
@@ -74,10 +84,13 @@ public class AST {
 
     public static class VarNode extends DecNode {
         final String id;
+        final int name;
         final Node exp;
+        STentry entry; // entry della dichiarazione, impostata dalla SymbolTableASTVisitor
 
-        VarNode(String i, TypeNode t, Node v) {
+        VarNode(String i, int n, TypeNode t, Node v) {
             id = i;
+            name = n;
             type = t;
             exp = v;
         }
@@ -268,12 +281,15 @@ public class AST {
 
     public static class CallNode extends Node {
         final String id;
+        final int name;
         final List<Node> arglist;
         STentry entry;
         int nl;
+        MethodNode target; // metodo invocato, se risolto staticamente (devirtualizzazione)
 
-        CallNode(String i, List<Node> p) {
+        CallNode(String i, int n, List<Node> p) {
             id = i;
+            name = n;
             arglist = Collections.unmodifiableList(p);
         }
 
@@ -285,11 +301,13 @@ public class AST {
 
     public static class IdNode extends Node {
         final String id;
+        final int name;
         STentry entry;
         int nl;
 
-        IdNode(String i) {
+        IdNode(String i, int n) {
             id = i;
+            name = n;
         }
 
         @Override
@@ -359,10 +377,12 @@ public class AST {
     public static class FieldNode extends DecNode {
 
         final String id;
+        final int name;
         int offset;
 
-        FieldNode(String i, TypeNode t) {
+        FieldNode(String i, int n, TypeNode t) {
             id = i;
+            name = n;
             type = t;
         }
 
@@ -374,6 +394,7 @@ public class AST {
 
     public static class MethodNode extends DecNode {
         final String id;
+        final int name;
         final TypeNode retType;
         final List<ParNode> parlist;
         final List<DecNode> declist;
@@ -381,8 +402,9 @@ public class AST {
         public int offset;
         public String label;
 
-        MethodNode(String i, TypeNode rt, List<ParNode> pl, List<DecNode> dl, Node e) {
+        MethodNode(String i, int n, TypeNode rt, List<ParNode> pl, List<DecNode> dl, Node e) {
             id = i;
+            name = n;
             retType = rt;
             parlist = Collections.unmodifiableList(pl);
             declist = Collections.unmodifiableList(dl);
@@ -399,16 +421,20 @@ public class AST {
 
     public static class ClassNode extends DecNode {
         final String id;
+        final int name;
         final List<FieldNode> fields;
         final List<MethodNode> methods;
         ClassTypeNode type;
         final String superID;
+        final int superName; // -1 se la classe non eredita
         STentry superEntry;
-        ClassNode(String id, List<FieldNode> f, List<MethodNode> m, String superID) {
+        ClassNode(String id, int name, List<FieldNode> f, List<MethodNode> m, String superID, int superName) {
             this.id = id;
+            this.name = name;
             fields = Collections.unmodifiableList(f);
             methods = Collections.unmodifiableList(m);
             this.superID=superID;
+            this.superName = superName;
         }
 
         @Override
@@ -419,14 +445,19 @@ public class AST {
 
     public static class ClassCallNode extends Node {
         final String objectId;
+        final int objectName;
         final String methodId;
+        final int methodName;
         final List<Node> arglist;
         STentry entry;
         STentry methodEntry;
         int nl;
-        ClassCallNode(String cId, String mId, List<Node> p) {
+        MethodNode target; // metodo invocato, se risolto staticamente (devirtualizzazione)
+        ClassCallNode(String cId, int cName, String mId, int mName, List<Node> p) {
             objectId = cId;
+            objectName = cName;
             methodId = mId;
+            methodName = mName;
             arglist = Collections.unmodifiableList(p);
         }
 
@@ -436,10 +467,12 @@ public class AST {
 
     public static class NewNode extends Node {
         final String classId;
+        final int className;
         final List<Node> arglist;
         STentry entry;
-        NewNode(String cId, List<Node> p) {
+        NewNode(String cId, int cName, List<Node> p) {
             classId = cId;
+            className = cName;
             arglist = Collections.unmodifiableList(p);
         }
 
@@ -454,7 +487,8 @@ public class AST {
 
     public static class RefTypeNode extends TypeNode {
         final String id;
-        RefTypeNode(String i) {id = i;}
+        final int name;
+        RefTypeNode(String i, int n) {id = i; name = n;}
 
         @Override
         public <S,E extends Exception> S accept(BaseASTVisitor<S,E> visitor) throws E {return visitor.visitNode(this);}
@@ -487,4 +521,4 @@ public class AST {
         @Override
         public <S,E extends Exception> S accept(BaseASTVisitor<S,E> visitor) throws E, TypeException {return visitor.visitNode(this);}
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
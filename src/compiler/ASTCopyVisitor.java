@@ -0,0 +1,188 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.exc.VoidException;
+import compiler.lib.BaseASTVisitor;
+import compiler.lib.DecNode;
+import compiler.lib.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// ricostruisce una copia dell'AST (i figli dei nodi sono final): base per le trasformazioni,
+// che ridefiniscono solo i nodi da riscrivere. I tipi sono condivisi e non copiati; le
+// informazioni di arricchimento (STentry, offset) vanno ricalcolate con la SymbolTableASTVisitor.
+// Una dichiarazione copiata come null viene eliminata dalla lista che la contiene.
+public class ASTCopyVisitor extends BaseASTVisitor<Node, VoidException> {
+
+	ASTCopyVisitor() {}
+
+	// riporta sulla copia la posizione del nodo originale
+	protected <T extends Node> T at(Node original, T copy) {
+		copy.setLine(original.getLine());
+		copy.setColumn(original.getColumn());
+		return copy;
+	}
+
+	protected List<DecNode> copyDecs(List<? extends DecNode> decs) {
+		List<DecNode> copy = new ArrayList<>();
+		for (DecNode dec : decs) {
+			DecNode d = (DecNode) visit(dec);
+			if (d != null) copy.add(d);
+		}
+		return copy;
+	}
+
+	protected List<ParNode> copyPars(List<ParNode> pars) {
+		List<ParNode> copy = new ArrayList<>();
+		for (ParNode par : pars) copy.add((ParNode) visit(par));
+		return copy;
+	}
+
+	protected List<Node> copyArgs(List<Node> args) {
+		List<Node> copy = new ArrayList<>();
+		for (Node arg : args) copy.add(visit(arg));
+		return copy;
+	}
+
+	@Override
+	public Node visitNode(ProgLetInNode n) {
+		return at(n, new ProgLetInNode(copyDecs(n.declist), visit(n.exp)));
+	}
+
+	@Override
+	public Node visitNode(ProgNode n) {
+		return at(n, new ProgNode(visit(n.exp)));
+	}
+
+	@Override
+	public Node visitNode(FunNode n) {
+		return at(n, new FunNode(n.id, n.name, n.retType, copyPars(n.parlist), copyDecs(n.declist), visit(n.exp)));
+	}
+
+	@Override
+	public Node visitNode(ParNode n) {
+		return at(n, new ParNode(n.id, n.name, n.getType()));
+	}
+
+	@Override
+	public Node visitNode(VarNode n) {
+		return at(n, new VarNode(n.id, n.name, n.getType(), visit(n.exp)));
+	}
+
+	@Override
+	public Node visitNode(PrintNode n) {
+		return at(n, new PrintNode(visit(n.exp)));
+	}
+
+	@Override
+	public Node visitNode(IfNode n) {
+		return at(n, new IfNode(visit(n.cond), visit(n.th), visit(n.el)));
+	}
+
+	@Override
+	public Node visitNode(EqualNode n) {
+		return at(n, new EqualNode(visit(n.left), visit(n.right)));
+	}
+
+	@Override
+	public Node visitNode(TimesNode n) {
+		return at(n, new TimesNode(visit(n.left), visit(n.right)));
+	}
+
+	@Override
+	public Node visitNode(PlusNode n) {
+		return at(n, new PlusNode(visit(n.left), visit(n.right)));
+	}
+
+	@Override
+	public Node visitNode(CallNode n) {
+		return at(n, new CallNode(n.id, n.name, copyArgs(n.arglist)));
+	}
+
+	@Override
+	public Node visitNode(IdNode n) {
+		return at(n, new IdNode(n.id, n.name));
+	}
+
+	@Override
+	public Node visitNode(BoolNode n) {
+		return at(n, new BoolNode(n.val));
+	}
+
+	@Override
+	public Node visitNode(IntNode n) {
+		return at(n, new IntNode(n.val));
+	}
+
+	@Override
+	public Node visitNode(GreaterEqualNode n) {
+		return at(n, new GreaterEqualNode(visit(n.left), visit(n.right)));
+	}
+
+	@Override
+	public Node visitNode(LessEqualNode n) {
+		return at(n, new LessEqualNode(visit(n.left), visit(n.right)));
+	}
+
+	@Override
+	public Node visitNode(NotNode n) {
+		return at(n, new NotNode(visit(n.arg)));
+	}
+
+	@Override
+	public Node visitNode(MinusNode n) {
+		return at(n, new MinusNode(visit(n.left), visit(n.right)));
+	}
+
+	@Override
+	public Node visitNode(OrNode n) {
+		return at(n, new OrNode(visit(n.left), visit(n.right)));
+	}
+
+	@Override
+	public Node visitNode(DivNode n) {
+		return at(n, new DivNode(visit(n.left), visit(n.right)));
+	}
+
+	@Override
+	public Node visitNode(AndNode n) {
+		return at(n, new AndNode(visit(n.left), visit(n.right)));
+	}
+
+	// OBJECT-ORIENTED EXTENSION
+
+	@Override
+	public Node visitNode(ClassNode n) {
+		List<FieldNode> fields = new ArrayList<>();
+		for (FieldNode field : n.fields) fields.add((FieldNode) visit(field));
+		List<MethodNode> methods = new ArrayList<>();
+		for (MethodNode method : n.methods) methods.add((MethodNode) visit(method));
+		return at(n, new ClassNode(n.id, n.name, fields, methods, n.superID, n.superName));
+	}
+
+	@Override
+	public Node visitNode(FieldNode n) {
+		return at(n, new FieldNode(n.id, n.name, n.getType()));
+	}
+
+	@Override
+	public Node visitNode(MethodNode n) {
+		return at(n, new MethodNode(n.id, n.name, n.retType, copyPars(n.parlist), copyDecs(n.declist), visit(n.exp)));
+	}
+
+	@Override
+	public Node visitNode(ClassCallNode n) {
+		return at(n, new ClassCallNode(n.objectId, n.objectName, n.methodId, n.methodName, copyArgs(n.arglist)));
+	}
+
+	@Override
+	public Node visitNode(NewNode n) {
+		return at(n, new NewNode(n.classId, n.className, copyArgs(n.arglist)));
+	}
+
+	@Override
+	public Node visitNode(EmptyNode n) {
+		return at(n, new EmptyNode());
+	}
+}
@@ -7,6 +7,7 @@ import compiler.lib.Node;
 import compiler.lib.TypeNode;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,14 +19,30 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
 
     String indent;
     public boolean print;
+    private final NamePool names; // identificatori della compilazione
+    private final TypeFactory types; // tipi della compilazione, indicizzati dagli identificatori di names
 
-    ASTGenerationSTVisitor() {
+    ASTGenerationSTVisitor(NamePool names, TypeFactory types) {
+        this.names = names;
+        this.types = types;
     }
 
-    ASTGenerationSTVisitor(boolean debug) {
+    ASTGenerationSTVisitor(NamePool names, TypeFactory types, boolean debug) {
+        this(names, types);
         print = debug;
     }
 
+    // identificatore del nome nel NamePool: i nodi memorizzano questo e l'istanza unica del nome
+    private int name(TerminalNode id) {
+        return names.id(id.getText());
+    }
+
+    // riga e colonna del token, per i messaggi di errore e la source map del codice generato
+    private static void setPosition(Node n, TerminalNode t) {
+        n.setLine(t.getSymbol().getLine());
+        n.setColumn(t.getSymbol().getCharPositionInLine());
+    }
+
     private void printVarAndProdName(ParserRuleContext ctx) {
         String prefix = "";
         Class<?> ctxClass = ctx.getClass(), parentClass = ctxClass.getSuperclass();
@@ -72,11 +89,11 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
         if (print) printVarAndProdName(c);
         if (c.TIMES() == null) {
             Node n = new DivNode(visit(c.exp(0)), visit(c.exp(1)));
-            n.setLine(c.DIV().getSymbol().getLine());        // setLine added
+            setPosition(n, c.DIV());
             return n;
         } else {
             Node n = new TimesNode(visit(c.exp(0)), visit(c.exp(1)));
-            n.setLine(c.TIMES().getSymbol().getLine());        // setLine added
+            setPosition(n, c.TIMES());
             return n;
         }
     }
@@ -86,11 +103,11 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
         if (print) printVarAndProdName(c);
         if (c.PLUS() == null) {
             Node n = new MinusNode(visit(c.exp(0)), visit(c.exp(1)));
-            n.setLine(c.MINUS().getSymbol().getLine());
+            setPosition(n, c.MINUS());
             return n;
         } else {
             Node n = new PlusNode(visit(c.exp(0)), visit(c.exp(1)));
-            n.setLine(c.PLUS().getSymbol().getLine());
+            setPosition(n, c.PLUS());
             return n;
         }
     }
@@ -100,15 +117,15 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
         if (print) printVarAndProdName(c);
         if (c.LE() == null && c.GE() == null) {
             Node en = new EqualNode(visit(c.exp(0)), visit(c.exp(1)));
-            en.setLine(c.EQ().getSymbol().getLine());
+            setPosition(en, c.EQ());
             return en;
         } else if (c.LE() == null && c.EQ() == null) {
             Node gen = new GreaterEqualNode(visit(c.exp(0)), visit(c.exp(1)));
-            gen.setLine(c.GE().getSymbol().getLine());
+            setPosition(gen, c.GE());
             return gen;
         } else {
             Node len = new LessEqualNode(visit(c.exp(0)), visit(c.exp(1)));
-            len.setLine(c.LE().getSymbol().getLine());
+            setPosition(len, c.LE());
             return len;
         }
     }
@@ -118,8 +135,9 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
         if (print) printVarAndProdName(c);
         Node n = null;
         if (c.ID() != null) { //non-incomplete ST
-            n = new VarNode(c.ID().getText(), (TypeNode) visit(c.type()), visit(c.exp()));
-            n.setLine(c.VAR().getSymbol().getLine());
+            int name = name(c.ID());
+            n = new VarNode(names.name(name), name, (TypeNode) visit(c.type()), visit(c.exp()));
+            setPosition(n, c.VAR());
         }
         return n;
     }
@@ -129,8 +147,9 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
         if (print) printVarAndProdName(c);
         List<ParNode> parList = new ArrayList<>();
         for (int i = 1; i < c.ID().size(); i++) {
-            ParNode p = new ParNode(c.ID(i).getText(), (TypeNode) visit(c.type(i)));
-            p.setLine(c.ID(i).getSymbol().getLine());
+            int name = name(c.ID(i));
+            ParNode p = new ParNode(names.name(name), name, (TypeNode) visit(c.type(i)));
+            setPosition(p, c.ID(i));
             parList.add(p);
         }
         List<DecNode> decList = new ArrayList<>();
@@ -138,8 +157,9 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
             decList.add((DecNode) visit(dec));
         Node n = null;
         if (c.ID().size() > 0) { //non-incomplete ST
-            n = new FunNode(c.ID(0).getText(), (TypeNode) visit(c.type(0)), parList, decList, visit(c.exp()));
-            n.setLine(c.FUN().getSymbol().getLine());
+            int name = name(c.ID(0));
+            n = new FunNode(names.name(name), name, (TypeNode) visit(c.type(0)), parList, decList, visit(c.exp()));
+            setPosition(n, c.FUN());
         }
         return n;
     }
@@ -148,7 +168,7 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
     public Node visitNot(NotContext ctx) {
         if (print) printVarAndProdName(ctx);
         Node n = new NotNode(visit(ctx.exp()));
-        n.setLine(ctx.NOT().getSymbol().getLine());
+        setPosition(n, ctx.NOT());
         return n;
     }
 
@@ -157,11 +177,11 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
         if (print) printVarAndProdName(ctx);
         if (ctx.AND() == null) {
             Node n = new OrNode(visit(ctx.exp(0)), visit(ctx.exp(1)));
-            n.setLine(ctx.OR().getSymbol().getLine());
+            setPosition(n, ctx.OR());
             return n;
         } else {
             Node n = new AndNode(visit(ctx.exp(0)), visit(ctx.exp(1)));
-            n.setLine(ctx.AND().getSymbol().getLine());
+            setPosition(n, ctx.AND());
             return n;
         }
     }
@@ -169,13 +189,13 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
     @Override
     public Node visitIntType(IntTypeContext c) {
         if (print) printVarAndProdName(c);
-        return new IntTypeNode();
+        return types.intType();
     }
 
     @Override
     public Node visitBoolType(BoolTypeContext c) {
         if (print) printVarAndProdName(c);
-        return new BoolTypeNode();
+        return types.boolType();
     }
 
     @Override
@@ -204,7 +224,7 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
         Node thenNode = visit(c.exp(1));
         Node elseNode = visit(c.exp(2));
         Node n = new IfNode(ifNode, thenNode, elseNode);
-        n.setLine(c.IF().getSymbol().getLine());
+        setPosition(n, c.IF());
         return n;
     }
 
@@ -223,8 +243,9 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
     @Override
     public Node visitId(IdContext c) {
         if (print) printVarAndProdName(c);
-        Node n = new IdNode(c.ID().getText());
-        n.setLine(c.ID().getSymbol().getLine());
+        int name = name(c.ID());
+        Node n = new IdNode(names.name(name), name);
+        setPosition(n, c.ID());
         return n;
     }
 
@@ -234,8 +255,9 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
         List<Node> arglist = new ArrayList<>();
         for (ExpContext arg : c.exp())
             arglist.add(visit(arg));
-        Node n = new CallNode(c.ID().getText(), arglist);
-        n.setLine(c.ID().getSymbol().getLine());
+        int name = name(c.ID());
+        Node n = new CallNode(names.name(name), name, arglist);
+        setPosition(n, c.ID());
         return n;
     }
 
@@ -249,8 +271,9 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
         // fields
         List<FieldNode> fields = new ArrayList<>();
         for (int i = start, j = 0; i < c.ID().size(); i++, j++) {
-            FieldNode f = new FieldNode(c.ID(i).getText(), (TypeNode) visit(c.type(j)));
-            f.setLine(c.ID(i).getSymbol().getLine());
+            int name = name(c.ID(i));
+            FieldNode f = new FieldNode(names.name(name), name, (TypeNode) visit(c.type(j)));
+            setPosition(f, c.ID(i));
             fields.add(f);
         }
 
@@ -262,12 +285,14 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
         // new class node
         Node n = null;
         if (c.ID().size() > 0) { //non-incomplete ST
+            int name = name(c.ID(0));
             if (c.EXTENDS() != null && c.ID(1) != null) {
-                n = new ClassNode(c.ID(0).getText(), fields, methods, c.ID(1).getText());
+                int superName = name(c.ID(1));
+                n = new ClassNode(names.name(name), name, fields, methods, names.name(superName), superName);
             } else {
-                n = new ClassNode(c.ID(0).getText(), fields, methods, null);
+                n = new ClassNode(names.name(name), name, fields, methods, null, -1);
             }
-            n.setLine(c.CLASS().getSymbol().getLine());
+            setPosition(n, c.CLASS());
         }
 
         return n;
@@ -280,8 +305,9 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
         // parametri
         List<ParNode> parList = new ArrayList<>();
         for (int i = 1; i < c.ID().size(); i++) {
-            ParNode p = new ParNode(c.ID(i).getText(), (TypeNode) visit(c.type(i)));
-            p.setLine(c.ID(i).getSymbol().getLine());
+            int name = name(c.ID(i));
+            ParNode p = new ParNode(names.name(name), name, (TypeNode) visit(c.type(i)));
+            setPosition(p, c.ID(i));
             parList.add(p);
         }
 
@@ -294,8 +320,9 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
         // new method node
         Node n = null;
         if (c.ID().size() > 0) { //non-incomplete ST
-            n = new MethodNode(c.ID(0).getText(), (TypeNode) visit(c.type(0)), parList, decList, visit(c.exp()));
-            n.setLine(c.FUN().getSymbol().getLine());
+            int name = name(c.ID(0));
+            n = new MethodNode(names.name(name), name, (TypeNode) visit(c.type(0)), parList, decList, visit(c.exp()));
+            setPosition(n, c.FUN());
         }
 
         return n;
@@ -312,10 +339,12 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
         }
 
         // new dot call node
-        Node n = new ClassCallNode(c.ID(0).getText(), // object id
-                c.ID(1).getText(), // method id
+        int objectName = name(c.ID(0));
+        int methodName = name(c.ID(1));
+        Node n = new ClassCallNode(names.name(objectName), objectName, // object id
+                names.name(methodName), methodName, // method id
                 arglist);
-        n.setLine(c.ID(0).getSymbol().getLine());
+        setPosition(n, c.ID(0));
 
         return n;
     }
@@ -330,8 +359,9 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
             arglist.add(visit(arg));
 
         // new node
-        Node n = new NewNode(c.ID().getText(), arglist);
-        n.setLine(c.ID().getSymbol().getLine());
+        int name = name(c.ID());
+        Node n = new NewNode(names.name(name), name, arglist);
+        setPosition(n, c.ID());
 
         return n;
     }
@@ -341,7 +371,7 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
         if (print) printVarAndProdName(c);
 
         Node n = new EmptyNode();
-        n.setLine(c.NULL().getSymbol().getLine());
+        setPosition(n, c.NULL());
 
         return n;
     }
@@ -349,9 +379,7 @@ public class ASTGenerationSTVisitor extends compiler.FOOLBaseVisitor<Node> {
     public Node visitIdType(IdTypeContext c) {
         if (print) printVarAndProdName(c);
 
-        Node n = new RefTypeNode(c.ID().getText());
-        n.setLine(c.ID().getSymbol().getLine());
-
-        return n;
+        int name = name(c.ID());
+        return types.refType(names.name(name), name); // istanza condivisa: senza numero di linea
     }
 }
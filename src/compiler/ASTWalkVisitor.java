@@ -0,0 +1,188 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.exc.VoidException;
+import compiler.lib.BaseEASTVisitor;
+import compiler.lib.Node;
+
+// visita tutti i nodi dell'AST (arricchito) senza fare nulla: base per le analisi,
+// che ridefiniscono solo i nodi che interessano (richiamando super per proseguire la visita)
+public class ASTWalkVisitor extends BaseEASTVisitor<Void, VoidException> {
+
+	ASTWalkVisitor() {}
+
+	@Override
+	public Void visitNode(ProgLetInNode n) {
+		for (Node dec : n.declist) visit(dec);
+		visit(n.exp);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(ProgNode n) {
+		visit(n.exp);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(FunNode n) {
+		for (ParNode par : n.parlist) visit(par);
+		for (Node dec : n.declist) visit(dec);
+		visit(n.exp);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(ParNode n) {
+		return null;
+	}
+
+	@Override
+	public Void visitNode(VarNode n) {
+		visit(n.exp);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(PrintNode n) {
+		visit(n.exp);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(IfNode n) {
+		visit(n.cond);
+		visit(n.th);
+		visit(n.el);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(EqualNode n) {
+		visit(n.left);
+		visit(n.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(TimesNode n) {
+		visit(n.left);
+		visit(n.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(PlusNode n) {
+		visit(n.left);
+		visit(n.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(CallNode n) {
+		for (Node arg : n.arglist) visit(arg);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(IdNode n) {
+		return null;
+	}
+
+	@Override
+	public Void visitNode(BoolNode n) {
+		return null;
+	}
+
+	@Override
+	public Void visitNode(IntNode n) {
+		return null;
+	}
+
+	@Override
+	public Void visitNode(GreaterEqualNode n) {
+		visit(n.left);
+		visit(n.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(LessEqualNode n) {
+		visit(n.left);
+		visit(n.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(NotNode n) {
+		visit(n.arg);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(MinusNode n) {
+		visit(n.left);
+		visit(n.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(OrNode n) {
+		visit(n.left);
+		visit(n.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(DivNode n) {
+		visit(n.left);
+		visit(n.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(AndNode n) {
+		visit(n.left);
+		visit(n.right);
+		return null;
+	}
+
+	// OBJECT-ORIENTED EXTENSION
+
+	@Override
+	public Void visitNode(ClassNode n) {
+		for (FieldNode field : n.fields) visit(field);
+		for (MethodNode method : n.methods) visit(method);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(FieldNode n) {
+		return null;
+	}
+
+	@Override
+	public Void visitNode(MethodNode n) {
+		for (ParNode par : n.parlist) visit(par);
+		for (Node dec : n.declist) visit(dec);
+		visit(n.exp);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(ClassCallNode n) {
+		for (Node arg : n.arglist) visit(arg);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(NewNode n) {
+		for (Node arg : n.arglist) visit(arg);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(EmptyNode n) {
+		return null;
+	}
+}
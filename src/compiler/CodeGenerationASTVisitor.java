@@ -3,78 +3,314 @@ package compiler;
 import compiler.AST.*;
 import compiler.exc.VoidException;
 import compiler.lib.BaseASTVisitor;
+import compiler.lib.CompilerOptions;
+import compiler.lib.DecNode;
 import compiler.lib.Node;
-import svm.ExecuteVM;
+import compiler.lib.Visitable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static compiler.lib.FOOLlib.nlJoin;
+
+// Il codice di ogni funzione e metodo e' generato da un visitor a parte, con un proprio spazio di
+// etichette (prefissate dall'etichetta della funzione), eventualmente in parallelo su un ForkJoinPool;
+// i codici sono poi collegati nell'ordine della visita, per cui il risultato non dipende dalla
+// modalita' di generazione.
+public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidException> {
 
-import static compiler.lib.FOOLlib.*;
+    // stato comune ai visitor che generano il codice di un programma
+    private static class Program {
+        final CompilerOptions options;
+        final ForkJoinPool pool; // null: generazione sequenziale
+        final List<List<String>> dispatchTables = new ArrayList<>();
+        // indirizzo di ciascuna tabella nel segmento dati, letto anche dai visitor delle funzioni in parallelo
+        final List<Integer> dispatchPointers = new CopyOnWriteArrayList<>();
+        final List<String> data = new ArrayList<>(); // segmento dati: etichette dei metodi
+        final AtomicInteger inlinedCalls = new AtomicInteger(); // chiamate sostituite dal corpo del metodo
+
+        Program(CompilerOptions options) {
+            this.options = options;
+            pool = options.parallelCodeGeneration ? ForkJoinPool.commonPool() : null;
+        }
 
-public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidException> {
+        // colloca la tabella nel segmento dati e ne ritorna l'indirizzo: una tabella che e' prefisso di
+        // una gia' collocata la condivide, una che estende l'ultima collocata ne aggiunge solo il resto
+        int layoutDispatchTable(List<String> table) {
+            for (int i = 0; i < dispatchTables.size(); i++) {
+                List<String> other = dispatchTables.get(i);
+                if (other.size() >= table.size() && other.subList(0, table.size()).equals(table))
+                    return dispatchPointers.get(i);
+            }
+            for (int i = 0; i < dispatchTables.size(); i++) {
+                List<String> other = dispatchTables.get(i);
+                int start = dispatchPointers.get(i);
+                if (start + other.size() == data.size() && other.size() < table.size()
+                        && table.subList(0, other.size()).equals(other)) {
+                    data.addAll(table.subList(other.size(), table.size()));
+                    return start;
+                }
+            }
+            data.addAll(table);
+            return data.size() - table.size();
+        }
+    }
+
+    static final String MAIN = "main"; // etichetta dell'espressione principale, dopo le dichiarazioni globali
 
-    private List<List<String>> dispatchTables = new ArrayList<>();
+    private final Program program;
+    private final List<List<String>> dispatchTables;
+    private final CompilerOptions options;
+    private final String namespace; // prefisso delle etichette generate ("" per il programma principale)
+    private int labCount = 0;
+    private int funlabCount = 0;
+    private int nestingLevel; // current nesting level
+    private String className; // classe dei metodi in generazione
+    private int line = -1, column = -1; // posizione nel sorgente del codice in generazione
+    // codice delle funzioni generate da questo visitor, nell'ordine di collegamento
+    private final List<ForkJoinTask<String>> functions = new ArrayList<>();
 
     CodeGenerationASTVisitor() {
+        this(new CompilerOptions());
+    }
+
+    CodeGenerationASTVisitor(CompilerOptions options) {
+        this(new Program(options), "", 0, false);
     }
 
     CodeGenerationASTVisitor(boolean debug) {
-        super(false, debug);
+        this(new Program(new CompilerOptions()), "", 0, debug);
     } //enables print for debugging
 
+    private CodeGenerationASTVisitor(Program program, String namespace, int nestingLevel, boolean debug) {
+        super(false, debug);
+        this.program = program;
+        dispatchTables = program.dispatchTables;
+        options = program.options;
+        this.namespace = namespace;
+        this.nestingLevel = nestingLevel;
+    }
+
+    // ogni nodo con una posizione nel sorgente la assegna al proprio codice con una direttiva "line",
+    // e al ritorno ripristina quella del nodo che lo contiene per le istruzioni che seguono
+    @Override
+    public String visit(Visitable v, String mark) {
+        if (!(v instanceof Node)) return super.visit(v, mark);
+        Node n = (Node) v;
+        if (n.getLine() < 0 || (n.getLine() == line && n.getColumn() == column)) return super.visit(v, mark);
+        int outerLine = line, outerColumn = column;
+        line = n.getLine();
+        column = n.getColumn();
+        String code;
+        try {
+            code = super.visit(v, mark);
+        } finally {
+            line = outerLine;
+            column = outerColumn;
+        }
+        return code == null ? null : nlJoin(position(n.getLine(), n.getColumn()), code, position(outerLine, outerColumn));
+    }
+
+    private static String position(int line, int column) {
+        return "line " + line + " " + column;
+    }
+
+    // toglie le direttive "line" che non si applicano a nessuna istruzione (seguite da un'altra
+    // direttiva prima della prossima istruzione); quelle rimaste sono spostate dopo etichette e righe vuote
+    private static String dropDeadPositions(String code) {
+        List<String> lines = new ArrayList<>();
+        String pending = null;
+        for (String l : code.split("\n")) {
+            if (l.startsWith("line ")) pending = l;
+            else if (l.isEmpty() || l.endsWith(":") || l.startsWith("name ") || l.startsWith("class ") || l.startsWith("data ")) lines.add(l);
+            else {
+                if (pending != null) lines.add(pending);
+                pending = null;
+                lines.add(l);
+            }
+        }
+        return String.join("\n", lines);
+    }
+
+    int inlinedCalls() {
+        return program.inlinedCalls.get();
+    }
+
+    private String freshLabel() {
+        return namespace + "label" + (labCount++);
+    }
+
+    private String freshFunLabel() {
+        return namespace + "function" + (funlabCount++);
+    }
+
+    // genera il codice della funzione con etichetta "label", il cui corpo e' al livello successivo,
+    // in un visitor con le etichette prefissate da "label"
+    private void putFunction(String label, String name, List<DecNode> declist, int parCount, Node exp, boolean method) {
+        CodeGenerationASTVisitor body = new CodeGenerationASTVisitor(program, label, nestingLevel + 1, print);
+        body.line = line; // posizione della dichiarazione
+        body.column = column;
+        ForkJoinTask<String> task = ForkJoinTask.adapt((Callable<String>) () -> {
+            String code = body.functionCode(label, name, declist, parCount, exp, method);
+            String nested = body.linkedFunctions(); // funzioni annidate, collegate prima della funzione
+            return nested == null ? code : nested + "\n\n" + code;
+        });
+        if (program.pool != null) program.pool.execute(task);
+        else task.invoke();
+        functions.add(task);
+    }
+
+    // codice delle funzioni generate da questo visitor (e da quelle in esse annidate), in ordine
+    private String linkedFunctions() {
+        StringBuilder code = new StringBuilder();
+        for (ForkJoinTask<String> function : functions) {
+            if (code.length() > 0) code.append("\n\n");
+            code.append(function.join());
+        }
+        return code.length() > 0 ? code.toString() : null;
+    }
+
+    // codice di una funzione o di un metodo (nel visitor del suo corpo)
+    private String functionCode(String label, String name, List<DecNode> declist, int parCount, Node exp, boolean method) {
+        String declCode = null, popDecl = null, popParl = null;
+        for (Node dec : declist) {
+            declCode = nlJoin(declCode, visit(dec));
+            popDecl = nlJoin(popDecl, "pop");
+        }
+        for (int i = 0; i < parCount; i++)
+            popParl = nlJoin(popParl, "pop");
+
+        return nlJoin(
+                "name " + label + " \"" + name + "\" " + parCount, // nome nel sorgente e parametri, per profiler e messaggi di errore
+                label + ":",
+                position(line, column),
+                "cfp", // set $fp to $sp value
+                "lra", // load $ra value
+                enterDisplay(method),
+                declCode, // generate code for local declarations (they use the new $fp!!!)
+                visit(exp), // generate code for function body expression
+                "stm", // set $tm to popped value (function result)
+                popDecl, // remove local declarations from stack
+                "sra", // set $ra to popped value
+                "pop", // remove Access Link from stack
+                popParl, // remove parameters from stack
+                "sfp", // set $fp to popped value (Control Link)
+                exitDisplay(method),
+                "ltm", // load $tm value (function result)
+                "lra", // load $ra value
+                "js"  // jump to to popped address
+        );
+    }
+
+    // controllo di null per le chiamate devirtualizzate, sull'object pointer in cima allo stack (che resta):
+    // come la chiamata tramite dispatch table legge il dispatch pointer, che per null e' all'indirizzo -1,
+    // e la VM fallisce nel punto della chiamata
+    private static String nullCheck() {
+        return nlJoin(
+                "stm", "ltm", "ltm", // duplicate top of stack
+                "lw", // load dispatch pointer
+                "pop"
+        );
+    }
+
+    // metodo senza parametri ne' dichiarazioni il cui corpo e' un campo dell'oggetto o una costante
+    static boolean isTrivial(MethodNode m) {
+        if (!m.parlist.isEmpty() || !m.declist.isEmpty()) return false;
+        if (m.exp instanceof IdNode) {
+            STentry field = ((IdNode) m.exp).entry;
+            return field.nl == 1 && !(field.type instanceof ArrowTypeNode) && !(field.type instanceof MethodTypeNode);
+        }
+        return m.exp instanceof IntNode || m.exp instanceof BoolNode || m.exp instanceof EmptyNode;
+    }
+
+    // corpo inline di un metodo banale: consuma l'object pointer (non null) in cima allo stack
+    private String inlineBody(MethodNode m) {
+        program.inlinedCalls.incrementAndGet();
+        if (m.exp instanceof IdNode) {
+            return nlJoin(
+                    "push " + ((IdNode) m.exp).entry.offset,
+                    "add", // compute address of field
+                    "lw" // load value of field
+            );
+        }
+        return nlJoin("pop", visit(m.exp));
+    }
+
+    // codice che mette sullo stack l'indirizzo del frame al livello "declNl", visto dal livello "nl"
+    private String getFrame(int nl, int declNl) {
+        // con -lift le funzioni sollevate sono globali e ogni loro chiamata da codice annidato
+        // richiederebbe di risalire la catena statica fino al frame globale, che e' invece sempre
+        // nel display (la VM inizializza il livello 0 anche senza -display)
+        if (options.lambdaLifting && nl != declNl && declNl == 0)
+            return "ldisp 0";
+        if (options.display && nl != declNl)
+            return "ldisp " + declNl; // un'unica istruzione, qualunque sia la distanza
+        String getAR = null;
+        for (int i = 0; i < nl - declNl; i++)
+            getAR = nlJoin(getAR, "lw");
+        return nlJoin("lfp", getAR); // by following the static chain (of Access Links)
+    }
+
+    // aggiornamento del display all'ingresso di una funzione (il cui corpo e' al livello corrente):
+    // il frame corrente diventa quello del livello; per i metodi anche l'oggetto (Access Link)
+    // diventa il frame del livello della classe
+    private String enterDisplay(boolean method) {
+        if (!options.display) return null;
+        return nlJoin(
+                method ? nlJoin("lfp", "lw", "sdisp " + (nestingLevel - 1)) : null,
+                "lfp",
+                "sdisp " + nestingLevel
+        );
+    }
+
+    // ripristino del display all'uscita (in ordine inverso rispetto a enterDisplay)
+    private String exitDisplay(boolean method) {
+        if (!options.display) return null;
+        return nlJoin(
+                "rdisp " + nestingLevel,
+                method ? "rdisp " + (nestingLevel - 1) : null
+        );
+    }
+
     @Override
     public String visitNode(ProgLetInNode n) {
         if (print) printNode(n);
         String declCode = null;
         for (Node dec : n.declist) declCode = nlJoin(declCode, visit(dec));
-        return nlJoin(
+        String mainCode = visit(n.exp);
+        String functionCode = linkedFunctions(); // attende le funzioni generate in parallelo
+        String dataCode = null;
+        for (String label : program.data) dataCode = nlJoin(dataCode, "data " + label);
+        return dropDeadPositions(nlJoin(
                 "push 0",
                 declCode, // generate code for declarations (allocation)
-                visit(n.exp),
+                MAIN + ":",
+                mainCode,
                 "halt",
-                getCode()
-        );
+                functionCode == null ? null : nlJoin("", functionCode),
+                dataCode == null ? null : nlJoin("", dataCode) // dispatch tables
+        ));
     }
 
     @Override
     public String visitNode(ProgNode n) {
         if (print) printNode(n);
-        return nlJoin(
+        return dropDeadPositions(nlJoin(
                 visit(n.exp),
                 "halt"
-        );
+        ));
     }
 
     @Override
     public String visitNode(FunNode n) {
         if (print) printNode(n, n.id);
-        String declCode = null, popDecl = null, popParl = null;
-        for (Node dec : n.declist) {
-            declCode = nlJoin(declCode, visit(dec));
-            popDecl = nlJoin(popDecl, "pop");
-        }
-        for (int i = 0; i < n.parlist.size(); i++)
-            popParl = nlJoin(popParl, "pop");
-
         String funl = freshFunLabel();
-        putCode(
-                nlJoin(
-                        funl + ":",
-                        "cfp", // set $fp to $sp value
-                        "lra", // load $ra value
-                        declCode, // generate code for local declarations (they use the new $fp!!!)
-                        visit(n.exp), // generate code for function body expression
-                        "stm", // set $tm to popped value (function result)
-                        popDecl, // remove local declarations from stack
-                        "sra", // set $ra to popped value
-                        "pop", // remove Access Link from stack
-                        popParl, // remove parameters from stack
-                        "sfp", // set $fp to popped value (Control Link)
-                        "ltm", // load $tm value (function result)
-                        "lra", // load $ra value
-                        "js"  // jump to to popped address
-                )
-        );
+        putFunction(funl, n.id, n.declist, n.parlist.size(), n.exp, false);
         return "push " + funl;
     }
 
@@ -99,9 +335,7 @@ public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidExcepti
         String l1 = freshLabel();
         String l2 = freshLabel();
         return nlJoin(
-                visit(n.cond),
-                "push 1",
-                "beq " + l1,
+                branchIfTrue(n.cond, l1), // jump to "then" branch, fall through to "else" branch
                 visit(n.el),
                 "b " + l2,
                 l1 + ":",
@@ -147,17 +381,10 @@ public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidExcepti
     @Override
     public String visitNode(NotNode n) {
         if (print) printNode(n);
-        String l1 = freshLabel();
-        String l2 = freshLabel();
         return nlJoin(
-                visit(n.arg),
-                "push 1",
-                "beq " + l1,
                 "push 1",
-                "b " + l2,
-                l1 + ":",
-                "push 0",
-                l2 + ":"
+                visit(n.arg),
+                "sub" // 1 - arg: booleans are 0/1, no branch needed
         );
     }
 
@@ -174,25 +401,7 @@ public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidExcepti
     @Override
     public String visitNode(OrNode n) {
         if (print) printNode(n);
-        String l1 = freshLabel();
-        String l2 = freshLabel();
-        String l3 = freshLabel();
-        return nlJoin(
-                visit(n.left),
-                "push 0",
-                "beq" + l1,
-                "b " + l3,
-                l1 + ":",
-                visit(n.right),
-                "push 0",
-                "beq" + l2,
-                "b " + l3,
-                l2 + ":",
-                "push 0",
-                l3 + ":",
-                "push 1"
-
-        );
+        return materialize(n);
     }
 
     @Override
@@ -208,24 +417,7 @@ public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidExcepti
     @Override
     public String visitNode(AndNode n) {
         if (print) printNode(n);
-        String l1 = freshLabel();
-        String l2 = freshLabel();
-        String l3 = freshLabel();
-        return nlJoin(
-                visit(n.left),
-                "push 1",
-                "beq" + l1,
-                l3,
-                l1 + ":",
-                visit(n.right),
-                "push 1",
-                "beq" + l2,
-                l3,
-                l2 + ":",
-                "push 1",
-                l3 + ":",
-                "push 0"
-        );
+        return materialize(n);
     }
 
     @Override
@@ -268,13 +460,8 @@ public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidExcepti
     @Override
     public String visitNode(IdNode n) {
         if (print) printNode(n, n.id);
-        String getAR = null;
-        for (int i = 0; i < n.nl - n.entry.nl; i++)
-            getAR = nlJoin(getAR, "lw");
-
         return nlJoin(
-                "lfp", getAR, // retrieve address of frame containing "id" declaration
-                // by following the static chain (of Access Links)
+                getFrame(n.nl, n.entry.nl), // retrieve address of frame containing "id" declaration
                 "push " + n.entry.offset,
                 "add", // compute address of "id" declaration
                 "lw" // load value of "id" variable
@@ -293,13 +480,76 @@ public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidExcepti
         return "push " + n.val;
     }
 
+    // CONDITION CODE GENERATION
+    // le condizioni vengono compilate direttamente in salti verso le etichette di destinazione,
+    // senza materializzare 0/1 sullo stack (&& e || sono valutati in corto circuito)
+
+    // salta a "lTrue" se la condizione e' vera, prosegue con l'istruzione successiva altrimenti
+    private String branchIfTrue(Node cond, String lTrue) {
+        if (cond instanceof BoolNode)
+            return ((BoolNode) cond).val ? "b " + lTrue : null;
+        if (cond instanceof NotNode)
+            return branchIfFalse(((NotNode) cond).arg, lTrue);
+        if (cond instanceof EqualNode)
+            return nlJoin(visit(((EqualNode) cond).left), visit(((EqualNode) cond).right), "beq " + lTrue);
+        if (cond instanceof LessEqualNode)
+            return nlJoin(visit(((LessEqualNode) cond).left), visit(((LessEqualNode) cond).right), "bleq " + lTrue);
+        if (cond instanceof GreaterEqualNode)
+            return nlJoin(visit(((GreaterEqualNode) cond).right), visit(((GreaterEqualNode) cond).left), "bleq " + lTrue);
+        if (cond instanceof OrNode)
+            return nlJoin(branchIfTrue(((OrNode) cond).left, lTrue), branchIfTrue(((OrNode) cond).right, lTrue));
+        if (cond instanceof AndNode) {
+            String lSkip = freshLabel();
+            return nlJoin(
+                    branchIfFalse(((AndNode) cond).left, lSkip),
+                    branchIfTrue(((AndNode) cond).right, lTrue),
+                    lSkip + ":"
+            );
+        }
+        return nlJoin(visit(cond), "push 1", "beq " + lTrue);
+    }
+
+    // salta a "lFalse" se la condizione e' falsa, prosegue con l'istruzione successiva altrimenti
+    private String branchIfFalse(Node cond, String lFalse) {
+        if (cond instanceof BoolNode)
+            return ((BoolNode) cond).val ? null : "b " + lFalse;
+        if (cond instanceof NotNode)
+            return branchIfTrue(((NotNode) cond).arg, lFalse);
+        if (cond instanceof AndNode)
+            return nlJoin(branchIfFalse(((AndNode) cond).left, lFalse), branchIfFalse(((AndNode) cond).right, lFalse));
+        if (cond instanceof OrNode || cond instanceof EqualNode
+                || cond instanceof LessEqualNode || cond instanceof GreaterEqualNode) {
+            // la SVM non ha salti sulla condizione negata: si salta oltre il "b lFalse"
+            String lSkip = freshLabel();
+            return nlJoin(
+                    branchIfTrue(cond, lSkip),
+                    "b " + lFalse,
+                    lSkip + ":"
+            );
+        }
+        return nlJoin(visit(cond), "push 0", "beq " + lFalse);
+    }
+
+    // valore 0/1 di una condizione usata come espressione
+    private String materialize(Node cond) {
+        String l1 = freshLabel();
+        String l2 = freshLabel();
+        return nlJoin(
+                branchIfTrue(cond, l1),
+                "push 0",
+                "b " + l2,
+                l1 + ":",
+                "push 1",
+                l2 + ":"
+        );
+    }
+
     //OOP
 
     @Override
     public String visitNode(ClassNode classNode) {
         if (print) printNode(classNode, classNode.id);
         List<String> dispatchTableIntern = null;
-        String methodCode = null;
 
         if (classNode.superID != null) {
             int offsetSuperClass = classNode.superEntry.offset;
@@ -308,68 +558,35 @@ public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidExcepti
             dispatchTableIntern = new ArrayList<String>();
         }
 
+        // le etichette sono assegnate prima di generare i corpi: le chiamate devirtualizzate
+        // possono riferirsi a metodi della stessa classe definiti piu' avanti
         for (MethodNode method : classNode.methods) {
-            visit(method);
+            method.label = freshFunLabel();
             if (method.offset < dispatchTableIntern.size())
                 dispatchTableIntern.set(method.offset, method.label);
             else
                 dispatchTableIntern.add(method.offset, method.label);
         }
 
+        // la dispatch table e' nel segmento dati, gia' in memoria al caricamento del programma;
+        // il suo indirizzo e' noto prima dei corpi dei metodi, che possono istanziare la classe
+        int dispatchPointer = program.layoutDispatchTable(dispatchTableIntern);
         dispatchTables.add(dispatchTableIntern);
+        program.dispatchPointers.add(dispatchPointer);
 
-        for (String label : dispatchTableIntern) {
-            methodCode = nlJoin(methodCode,
-                    // memorizzo ciascuna etichetta in hp
-                    "push " + label, // metto la label sullo stack
-                    "lhp", // metto sullo stack il valore di hp
-                    "sw", // fa la pop dei due valori inseriti e va a scrivere la label sull'indirizzo puntato da hp
-                    // incremento hp
-                    "lhp",
-                    "push 1",
-                    "add",
-                    "shp");
-        }
+        nestingLevel++;
+        className = classNode.id;
+        for (MethodNode method : classNode.methods) visit(method);
+        nestingLevel--;
+
+        return "push " + dispatchPointer; // dispatch pointer della classe
 
-        return nlJoin("lhp", // metto il valore di hp sullo stack, cioè il dispatch pointer da ritornare alla fine
-                methodCode // creo sullo heap la dispatch table costruita
-        );
     }
 
     @Override
     public String visitNode(MethodNode methodNode) {
         if (print) printNode(methodNode, methodNode.id);
-        String declCode = null;
-        String popDecl = null;
-        String popParl = null;
-
-        for (Node dec : methodNode.declist) {
-            declCode = nlJoin(declCode, visit(dec));
-            popDecl = nlJoin(popDecl, "pop");
-        }
-        for (int i = 0; i < methodNode.parlist.size(); i++) {
-            popParl = nlJoin(popParl, "pop");
-        }
-        String freshFunLabel = freshFunLabel();
-        methodNode.label = freshFunLabel;
-        putCode(
-                nlJoin(
-                        freshFunLabel + ":",
-                        "cfp", // set $fp to $sp value
-                        "lra", // load $ra value
-                        declCode, // generate code for local declarations (they use the new $fp!!!)
-                        visit(methodNode.exp), // generate code for function body expression
-                        "stm", // set $tm to popped value (function result)
-                        popDecl, // remove local declarations from stack
-                        "sra", // set $ra to popped value
-                        "pop", // remove Access Link from stack
-                        popParl, // remove parameters from stack
-                        "sfp", // set $fp to popped value (Control Link)
-                        "ltm", // load $tm value (function result)
-                        "lra", // load $ra value
-                        "js"  // jump to to popped address
-                )
-        );
+        putFunction(methodNode.label, className + "." + methodNode.id, methodNode.declist, methodNode.parlist.size(), methodNode.exp, true);
         return null;
     }
 
@@ -377,21 +594,36 @@ public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidExcepti
     public String visitNode(ClassCallNode classCallNode) {
         if (print) printNode(classCallNode, classCallNode.objectId + "." + classCallNode.methodId);
         String argCode = null;
-        String getAR = null;
         for (int i = classCallNode.arglist.size() - 1; i >= 0; i--) {
             argCode = nlJoin(argCode, visit(classCallNode.arglist.get(i)));
         }
-        for (int i = 0; i < classCallNode.nl - classCallNode.entry.nl; i++) {
-            getAR = nlJoin(getAR, "lw");
+        String objectCode = nlJoin(
+                getFrame(classCallNode.nl, classCallNode.entry.nl), // retrieve address of frame containing "id" declaration
+                "push " + classCallNode.entry.offset,
+                "add", // compute address of "id" declaration
+                "lw"
+        );
+        if (classCallNode.target != null && options.inlining && isTrivial(classCallNode.target)) {
+            return nlJoin(
+                    objectCode,
+                    nullCheck(), // accesso su null: stesso errore della chiamata
+                    inlineBody(classCallNode.target)
+            );
+        }
+        if (classCallNode.target != null) {
+            return nlJoin(
+                    "lfp", // load Control Link (pointer to frame of function "id" caller)
+                    argCode, // generate code for argument expressions in reversed order
+                    objectCode, // load Access Link (object pointer)
+                    nullCheck(), // chiamata su null: stesso errore della dispatch table
+                    "push " + classCallNode.target.label, // metodo noto a tempo di compilazione
+                    "js"  // jump to popped address (saving address of subsequent instruction in $ra)
+            );
         }
         return nlJoin(
                 "lfp", // load Control Link (pointer to frame of function "id" caller)
                 argCode, // generate code for argument expressions in reversed order
-                "lfp",  // retrieve address of frame containing "id" declaration
-                getAR, // by following the static chain (of Access Links)
-                "push " + classCallNode.entry.offset,
-                "add", // compute address of "id" declaration
-                "lw",
+                objectCode,
                 "stm", // set $tm to popped value (with the aim of duplicating top of stack)
                 "ltm", // load Access Link (pointer to frame of function "id" declaration)
                 "ltm", // duplicate top of stack
@@ -407,22 +639,32 @@ public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidExcepti
     public String visitNode(CallNode callNode) {
         if (print) printNode(callNode, callNode.id);
         String argCode = null;
-        String getAR = null;
         for (int i = callNode.arglist.size() - 1; i >= 0; i--) {
             argCode = nlJoin(argCode, visit(callNode.arglist.get(i)));
         }
-        for (int i = 0; i < callNode.nl - callNode.entry.nl; i++) {
-            getAR = nlJoin(getAR, "lw");
-        }
         String code = nlJoin(
                 "lfp", // load Control Link (pointer to frame of function "id" caller)
                 argCode, // generate code for argument expressions in reversed order
-                "lfp", getAR, // retrieve address of frame containing "id" declaration
-                // by following the static chain (of Access Links)
+                getFrame(callNode.nl, callNode.entry.nl), // retrieve address of frame containing "id" declaration
                 "stm", // set $tm to popped value (with the aim of duplicating top of stack)
                 "ltm", // load Access Link (pointer to frame of function "id" declaration)
                 "ltm" // duplicate top of stack
         );
+        if (callNode.target != null && options.inlining && isTrivial(callNode.target)) {
+            return nlJoin(
+                    getFrame(callNode.nl, callNode.entry.nl), // object pointer (l'oggetto corrente, non null)
+                    inlineBody(callNode.target)
+            );
+        }
+        if (callNode.target != null) { // il ricevente e' l'oggetto corrente, quindi non e' null
+            return nlJoin(
+                    "lfp", // load Control Link (pointer to frame of function "id" caller)
+                    argCode, // generate code for argument expressions in reversed order
+                    getFrame(callNode.nl, callNode.entry.nl), // load Access Link (object pointer)
+                    "push " + callNode.target.label, // metodo noto a tempo di compilazione
+                    "js"  // jump to popped address (saving address of subsequent instruction in $ra)
+            );
+        }
         if (callNode.entry.type instanceof MethodTypeNode) {
             return nlJoin(
                     code,
@@ -456,32 +698,12 @@ public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidExcepti
             argCode = nlJoin(argCode, visit(arg));
         }
 
-        // tolgo gli argomenti dallo stack uno alla volta e li metto nello heap
-        for (Node arg : newNode.arglist) {
-            argCode = nlJoin(argCode,
-                    "lhp", // metto sullo stack il valore di hp
-                    "sw", // fa la pop dei due valori e va a scrivere all'indirizzo puntato da hp il valore sullo stack
-                    // incremento il valore di hp
-                    "lhp",
-                    "push 1",
-                    "add",
-                    "shp");
-        }
-
+        int dispatchPointer = program.dispatchPointers.get(-newNode.entry.offset - 2);
         return nlJoin(argCode,
-                "push " + ExecuteVM.MEMSIZE,
-                "push " + newNode.entry.offset,
-                "add", // calcoliamo offset
-                "lw", // recupero dispatch pointer
-                "lhp",
-                "sw", // scrivo ad indirizzo hp il dispatch pointer
-                "lhp", // carico sullo stack l'object pointer da ritornare
-                // incremento hp
-                "lhp",
-                "push 1",
-                "add",
-                "shp"
+                "class \"" + newNode.classId + "\"", // classe allocata, per il profilo delle allocazioni
+                // alloca sullo heap i campi tolti dallo stack e il dispatch pointer, lasciando l'object pointer
+                "new " + newNode.arglist.size() + " " + dispatchPointer
         );
 
     }
-}
\ No newline at end of file
+}
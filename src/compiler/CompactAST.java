@@ -0,0 +1,427 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.exc.VoidException;
+import compiler.lib.BaseASTVisitor;
+import compiler.lib.DecNode;
+import compiler.lib.Node;
+import compiler.lib.TypeNode;
+
+import java.util.*;
+
+// rappresentazione compatta dell'AST (non arricchito) come struct-of-arrays: il nodo i ha tipo kind[i],
+// posizione line[i] e column[i], due campi interi a[i] e b[i] (nome come identificatore del NamePool, indice del tipo
+// nella tabella dei tipi, valore di un letterale) e figli children[childStart[i] .. childStart[i+1]).
+// I nodi sono memorizzati in post-ordine: la radice e' l'ultimo. I nomi sono gli identificatori gia'
+// memorizzati nei nodi, relativi al NamePool della compilazione (usato per ricostruire i nodi).
+// Codifica e decodifica non sono ricorsive: gli AST dei programmi generati possono essere troppo
+// profondi per lo stack di Java.
+public class CompactAST {
+
+	private static final byte PROG_LET_IN = 0, PROG = 1, FUN = 2, PAR = 3, VAR = 4, PRINT = 5, IF = 6,
+			EQUAL = 7, GREATER_EQUAL = 8, LESS_EQUAL = 9, NOT = 10, MINUS = 11, OR = 12, AND = 13, DIV = 14,
+			TIMES = 15, PLUS = 16, CALL = 17, ID = 18, BOOL = 19, INT = 20, FIELD = 21, METHOD = 22, CLASS = 23,
+			CLASS_CALL = 24, NEW = 25, EMPTY = 26;
+
+	private byte[] kind;
+	private int[] line;
+	private int[] column;
+	private int[] a;
+	private int[] b;
+	private int[] childStart;
+	private int[] children;
+	private final List<TypeNode> types = new ArrayList<>(); // tipi distinti (gia' unici, vedi TypeFactory)
+	private final Map<TypeNode, Integer> typeIndex = new IdentityHashMap<>();
+	private int size = 0;
+	private int childCount = 0;
+	private final NamePool names;
+
+	private CompactAST(NamePool names, int capacity) {
+		this.names = names;
+		kind = new byte[capacity];
+		line = new int[capacity];
+		column = new int[capacity];
+		a = new int[capacity];
+		b = new int[capacity];
+		childStart = new int[capacity + 1];
+		children = new int[capacity];
+	}
+
+	// codifica l'AST con radice "root", i cui nomi appartengono a "names" (le informazioni di
+	// arricchimento non sono codificate). La visita usa uno stack esplicito
+	public static CompactAST encode(Node root, NamePool names) {
+		CompactAST ast = new CompactAST(names, 1024);
+		Shape shape = ast.new Shape();
+		Deque<Pending> todo = new ArrayDeque<>();
+		int[] done = new int[64]; // indici dei nodi codificati i cui padri non lo sono ancora
+		int top = 0;
+		todo.push(new Pending(root));
+		while (!todo.isEmpty()) {
+			Pending p = todo.pop();
+			if (p.node == null) throw new IllegalArgumentException("Incomplete AST cannot be encoded");
+			if (p.kids == null) { // primo incontro: i figli vanno codificati prima del nodo
+				shape.visit(p.node);
+				p.kind = shape.kind;
+				p.a = shape.a;
+				p.b = shape.b;
+				p.kids = shape.kids.toArray(new Node[0]);
+				todo.push(p);
+				for (int j = p.kids.length - 1; j >= 0; j--) todo.push(new Pending(p.kids[j]));
+			} else { // i figli sono in cima a "done", nell'ordine
+				top -= p.kids.length;
+				int i = ast.add(p.node, p.kind, p.a, p.b, Arrays.copyOfRange(done, top, top + p.kids.length));
+				if (top == done.length) done = Arrays.copyOf(done, 2 * top);
+				done[top++] = i;
+			}
+		}
+		ast.trim();
+		return ast;
+	}
+
+	// numero di nodi
+	public int size() {
+		return size;
+	}
+
+	// byte occupati dagli array (esclusa la tabella dei tipi, condivisa con l'AST originale)
+	public long bytes() {
+		return kind.length + 4L * (line.length + column.length + a.length + b.length + childStart.length + children.length);
+	}
+
+	// ricostruisce l'AST a oggetti, su cui girano i visitor esistenti: in post-ordine i figli di
+	// ogni nodo precedono il nodo, quindi basta un ciclo sugli indici (nessuna ricorsione)
+	public Node toNode() {
+		Node[] nodes = new Node[size];
+		for (int i = 0; i < size; i++) nodes[i] = decode(i, nodes);
+		return nodes[size - 1];
+	}
+
+	private void trim() {
+		kind = Arrays.copyOf(kind, size);
+		line = Arrays.copyOf(line, size);
+		column = Arrays.copyOf(column, size);
+		a = Arrays.copyOf(a, size);
+		b = Arrays.copyOf(b, size);
+		childStart = Arrays.copyOf(childStart, size + 1);
+		children = Arrays.copyOf(children, childCount);
+	}
+
+	// aggiunge un nodo con i figli gia' codificati; ritorna il suo indice
+	private int add(Node n, byte k, int va, int vb, int... kids) {
+		if (size == kind.length) {
+			int capacity = 2 * size;
+			kind = Arrays.copyOf(kind, capacity);
+			line = Arrays.copyOf(line, capacity);
+			column = Arrays.copyOf(column, capacity);
+			a = Arrays.copyOf(a, capacity);
+			b = Arrays.copyOf(b, capacity);
+			childStart = Arrays.copyOf(childStart, capacity + 1);
+		}
+		if (childCount + kids.length > children.length)
+			children = Arrays.copyOf(children, Math.max(2 * children.length, childCount + kids.length));
+		kind[size] = k;
+		line[size] = n.getLine();
+		column[size] = n.getColumn();
+		a[size] = va;
+		b[size] = vb;
+		childStart[size] = childCount;
+		System.arraycopy(kids, 0, children, childCount, kids.length);
+		childCount += kids.length;
+		childStart[size + 1] = childCount;
+		return size++;
+	}
+
+	private int typeIndex(TypeNode t) {
+		return typeIndex.computeIfAbsent(t, unique -> {
+			types.add(unique);
+			return types.size() - 1;
+		});
+	}
+
+	// nodo in attesa di essere codificato: "kids" e' null finche' i figli non sono stati messi sullo stack
+	private static class Pending {
+		final Node node;
+		byte kind;
+		int a, b;
+		Node[] kids;
+
+		Pending(Node n) {
+			node = n;
+		}
+	}
+
+	// forma di un nodo: tipo, campi interi e figli nell'ordine di codifica (non visita i figli)
+	private class Shape extends BaseASTVisitor<Void, VoidException> {
+
+		byte kind;
+		int a, b;
+		final List<Node> kids = new ArrayList<>();
+
+		private Void shape(byte k, int va, int vb, List<? extends Node> first, List<? extends Node> second, Node last) {
+			kind = k;
+			a = va;
+			b = vb;
+			kids.clear();
+			kids.addAll(first);
+			kids.addAll(second);
+			if (last != null) kids.add(last);
+			return null;
+		}
+
+		private Void shape(byte k, int va, int vb, Node... nodes) {
+			return shape(k, va, vb, Arrays.asList(nodes), List.of(), null);
+		}
+
+		@Override
+		public Void visitNode(ProgLetInNode n) {
+			return shape(PROG_LET_IN, 0, 0, n.declist, List.of(), n.exp);
+		}
+
+		@Override
+		public Void visitNode(ProgNode n) {
+			return shape(PROG, 0, 0, n.exp);
+		}
+
+		@Override
+		public Void visitNode(FunNode n) {
+			return shape(FUN, n.name, typeIndex(n.retType), n.parlist, n.declist, n.exp);
+		}
+
+		@Override
+		public Void visitNode(ParNode n) {
+			return shape(PAR, n.name, typeIndex(n.getType()));
+		}
+
+		@Override
+		public Void visitNode(VarNode n) {
+			return shape(VAR, n.name, typeIndex(n.getType()), n.exp);
+		}
+
+		@Override
+		public Void visitNode(PrintNode n) {
+			return shape(PRINT, 0, 0, n.exp);
+		}
+
+		@Override
+		public Void visitNode(IfNode n) {
+			return shape(IF, 0, 0, n.cond, n.th, n.el);
+		}
+
+		@Override
+		public Void visitNode(EqualNode n) {
+			return shape(EQUAL, 0, 0, n.left, n.right);
+		}
+
+		@Override
+		public Void visitNode(GreaterEqualNode n) {
+			return shape(GREATER_EQUAL, 0, 0, n.left, n.right);
+		}
+
+		@Override
+		public Void visitNode(LessEqualNode n) {
+			return shape(LESS_EQUAL, 0, 0, n.left, n.right);
+		}
+
+		@Override
+		public Void visitNode(NotNode n) {
+			return shape(NOT, 0, 0, n.arg);
+		}
+
+		@Override
+		public Void visitNode(MinusNode n) {
+			return shape(MINUS, 0, 0, n.left, n.right);
+		}
+
+		@Override
+		public Void visitNode(OrNode n) {
+			return shape(OR, 0, 0, n.left, n.right);
+		}
+
+		@Override
+		public Void visitNode(AndNode n) {
+			return shape(AND, 0, 0, n.left, n.right);
+		}
+
+		@Override
+		public Void visitNode(DivNode n) {
+			return shape(DIV, 0, 0, n.left, n.right);
+		}
+
+		@Override
+		public Void visitNode(TimesNode n) {
+			return shape(TIMES, 0, 0, n.left, n.right);
+		}
+
+		@Override
+		public Void visitNode(PlusNode n) {
+			return shape(PLUS, 0, 0, n.left, n.right);
+		}
+
+		@Override
+		public Void visitNode(CallNode n) {
+			return shape(CALL, n.name, 0, n.arglist, List.of(), null);
+		}
+
+		@Override
+		public Void visitNode(IdNode n) {
+			return shape(ID, n.name, 0);
+		}
+
+		@Override
+		public Void visitNode(BoolNode n) {
+			return shape(BOOL, n.val ? 1 : 0, 0);
+		}
+
+		@Override
+		public Void visitNode(IntNode n) {
+			return shape(INT, n.val, 0);
+		}
+
+		@Override
+		public Void visitNode(FieldNode n) {
+			return shape(FIELD, n.name, typeIndex(n.getType()));
+		}
+
+		@Override
+		public Void visitNode(MethodNode n) {
+			return shape(METHOD, n.name, typeIndex(n.retType), n.parlist, n.declist, n.exp);
+		}
+
+		@Override
+		public Void visitNode(ClassNode n) {
+			return shape(CLASS, n.name, n.superName, n.fields, n.methods, null);
+		}
+
+		@Override
+		public Void visitNode(ClassCallNode n) {
+			return shape(CLASS_CALL, n.objectName, n.methodName, n.arglist, List.of(), null);
+		}
+
+		@Override
+		public Void visitNode(NewNode n) {
+			return shape(NEW, n.className, 0, n.arglist, List.of(), null);
+		}
+
+		@Override
+		public Void visitNode(EmptyNode n) {
+			return shape(EMPTY, 0, 0);
+		}
+	}
+
+	// nodi gia' ricostruiti dei figli children[from .. to), nell'ordine
+	private <T extends Node> List<T> decodeAll(int from, int to, Class<T> c, Node[] nodes) {
+		List<T> list = new ArrayList<>(to - from);
+		for (int j = from; j < to; j++) list.add(c.cast(nodes[children[j]]));
+		return list;
+	}
+
+	// numero di figli consecutivi, a partire da "from", di tipo "k"
+	private int countKind(int from, int to, byte k) {
+		int j = from;
+		while (j < to && kind[children[j]] == k) j++;
+		return j - from;
+	}
+
+	// ricostruisce il nodo i; i suoi figli sono gia' in "nodes"
+	private Node decode(int i, Node[] nodes) {
+		int from = childStart[i], to = childStart[i + 1];
+		Node n;
+		switch (kind[i]) {
+			case PROG_LET_IN:
+				n = new ProgLetInNode(decodeAll(from, to - 1, DecNode.class, nodes), nodes[children[to - 1]]);
+				break;
+			case PROG:
+				n = new ProgNode(nodes[children[from]]);
+				break;
+			case FUN:
+			case METHOD: {
+				int pars = countKind(from, to - 1, PAR);
+				List<ParNode> parlist = decodeAll(from, from + pars, ParNode.class, nodes);
+				List<DecNode> declist = decodeAll(from + pars, to - 1, DecNode.class, nodes);
+				Node exp = nodes[children[to - 1]];
+				n = kind[i] == FUN ? new FunNode(nameOf(a[i]), a[i], types.get(b[i]), parlist, declist, exp)
+						: new MethodNode(nameOf(a[i]), a[i], types.get(b[i]), parlist, declist, exp);
+				break;
+			}
+			case PAR:
+				n = new ParNode(nameOf(a[i]), a[i], types.get(b[i]));
+				break;
+			case VAR:
+				n = new VarNode(nameOf(a[i]), a[i], types.get(b[i]), nodes[children[from]]);
+				break;
+			case PRINT:
+				n = new PrintNode(nodes[children[from]]);
+				break;
+			case IF:
+				n = new IfNode(nodes[children[from]], nodes[children[from + 1]], nodes[children[from + 2]]);
+				break;
+			case NOT:
+				n = new NotNode(nodes[children[from]]);
+				break;
+			case EQUAL:
+			case GREATER_EQUAL:
+			case LESS_EQUAL:
+			case MINUS:
+			case OR:
+			case AND:
+			case DIV:
+			case TIMES:
+			case PLUS:
+				n = binary(kind[i], nodes[children[from]], nodes[children[from + 1]]);
+				break;
+			case CALL:
+				n = new CallNode(nameOf(a[i]), a[i], decodeAll(from, to, Node.class, nodes));
+				break;
+			case ID:
+				n = new IdNode(nameOf(a[i]), a[i]);
+				break;
+			case BOOL:
+				n = new BoolNode(a[i] == 1);
+				break;
+			case INT:
+				n = new IntNode(a[i]);
+				break;
+			case FIELD:
+				n = new FieldNode(nameOf(a[i]), a[i], types.get(b[i]));
+				break;
+			case CLASS: {
+				int fields = countKind(from, to, FIELD);
+				n = new ClassNode(nameOf(a[i]), a[i], decodeAll(from, from + fields, FieldNode.class, nodes),
+						decodeAll(from + fields, to, MethodNode.class, nodes), nameOf(b[i]), b[i]);
+				break;
+			}
+			case CLASS_CALL:
+				n = new ClassCallNode(nameOf(a[i]), a[i], nameOf(b[i]), b[i], decodeAll(from, to, Node.class, nodes));
+				break;
+			case NEW:
+				n = new NewNode(nameOf(a[i]), a[i], decodeAll(from, to, Node.class, nodes));
+				break;
+			case EMPTY:
+				n = new EmptyNode();
+				break;
+			default:
+				throw new IllegalStateException("Unknown node kind " + kind[i]);
+		}
+		n.setLine(line[i]);
+		n.setColumn(column[i]);
+		return n;
+	}
+
+	private static Node binary(byte k, Node l, Node r) {
+		switch (k) {
+			case EQUAL: return new EqualNode(l, r);
+			case GREATER_EQUAL: return new GreaterEqualNode(l, r);
+			case LESS_EQUAL: return new LessEqualNode(l, r);
+			case MINUS: return new MinusNode(l, r);
+			case OR: return new OrNode(l, r);
+			case AND: return new AndNode(l, r);
+			case DIV: return new DivNode(l, r);
+			case TIMES: return new TimesNode(l, r);
+			default: return new PlusNode(l, r);
+		}
+	}
+
+	private String nameOf(int id) {
+		return id < 0 ? null : names.name(id);
+	}
+}
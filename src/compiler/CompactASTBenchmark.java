@@ -0,0 +1,87 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.CompilerOptions;
+import compiler.lib.FOOLlib;
+import compiler.lib.Node;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+
+// memoria occupata dall'AST a oggetti e dalla sua codifica compatta su un programma generato
+// (uso: CompactASTBenchmark [funzioni], di default 20000 funzioni), dopo aver verificato che
+// codifica e decodifica non cambino il codice generato per i programmi di esempio e che non
+// esauriscano lo stack su un AST profondo un milione di nodi
+public class CompactASTBenchmark {
+
+	private static final String[] SAMPLES = {"quicksort.fool", "bankloan.fool", "examples/nested.fool", "prova.fool"};
+
+	private static String generate(int functions) {
+		StringBuilder prog = new StringBuilder("let\n  fun f0:int (x:int) x;\n");
+		for (int i = 1; i < functions; i++)
+			prog.append("  fun f").append(i).append(":int (x:int) let var y:int = x * ").append(i)
+					.append(" + (x - 1) / 2; in if (y >= ").append(i).append(" && !(y == 0)) then {y} else {f")
+					.append(i - 1).append("(y + 1)};\n");
+		return prog.append("in print(f").append(functions - 1).append("(3));\n").toString();
+	}
+
+	// print(1+(1+(...+1))): l'AST e' costruito direttamente, il parser non accetterebbe una tale profondita'
+	private static Node deep(int depth) {
+		Node exp = new IntNode(1);
+		for (int i = 1; i < depth; i++) exp = new PlusNode(new IntNode(1), exp);
+		return new ProgNode(new PrintNode(exp));
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	public static void main(String[] args) throws Exception {
+		for (String sample : SAMPLES) {
+			String direct = FOOLCompiler.compile(CharStreams.fromFileName(sample), new CompilerOptions());
+			if (!direct.equals(compileThroughCompact(sample)))
+				throw new AssertionError("Different code after encoding " + sample);
+		}
+		System.out.println("Encoded and decoded " + SAMPLES.length + " sample programs: same code.");
+
+		CompactAST deep = CompactAST.encode(deep(1_000_000), new NamePool());
+		Node decoded = deep.toNode();
+		if (deep.size() != 2_000_001 || CompactAST.encode(decoded, new NamePool()).size() != deep.size())
+			throw new AssertionError("Wrong encoding of the deep AST");
+		System.out.println("Encoded and decoded an AST of depth 1000000.");
+
+		int functions = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		FOOLParser parser = new FOOLParser(new CommonTokenStream(new FOOLLexer(CharStreams.fromString(generate(functions)))));
+		FOOLParser.ProgContext tree = parser.prog();
+
+		NamePool names = new NamePool();
+		long before = usedMemory();
+		Node ast = new ASTGenerationSTVisitor(names, new TypeFactory()).visit(tree);
+		long objects = usedMemory() - before;
+
+		long start = System.nanoTime();
+		CompactAST encoded = CompactAST.encode(ast, names);
+		long encode = System.nanoTime() - start;
+		ast = null;
+		start = System.nanoTime();
+		encoded.toNode();
+		long decode = System.nanoTime() - start;
+
+		System.out.println(encoded.size() + " nodes: object AST " + objects / 1024 + " KB, compact AST "
+				+ encoded.bytes() / 1024 + " KB");
+		System.out.println(String.format("encode %.1f ms, decode %.1f ms", encode / 1e6, decode / 1e6));
+	}
+
+	// compila passando per la codifica compatta dell'AST
+	private static String compileThroughCompact(String fileName) throws Exception {
+		FOOLlib.reset();
+		NamePool names = new NamePool();
+		TypeFactory types = new TypeFactory();
+		FOOLParser parser = new FOOLParser(new CommonTokenStream(new FOOLLexer(CharStreams.fromFileName(fileName))));
+		Node ast = CompactAST.encode(new ASTGenerationSTVisitor(names, types).visit(parser.prog()), names).toNode();
+		new SymbolTableASTVisitor(types).visit(ast);
+		new TypeCheckEASTVisitor(types, new TypeRels()).visit(ast);
+		return new CodeGenerationASTVisitor().visit(ast);
+	}
+}
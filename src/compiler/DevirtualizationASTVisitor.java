@@ -0,0 +1,85 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.DecNode;
+
+import java.util.*;
+
+// Class Hierarchy Analysis: una chiamata di metodo e' monomorfa se nessuna sottoclasse (diretta o
+// indiretta) della classe statica del ricevente ridefinisce il metodo. In tal caso il metodo invocato
+// e' noto a tempo di compilazione e viene registrato nel nodo (campo "target"): la generazione di
+// codice lo chiama direttamente, senza passare dalla dispatch table.
+public class DevirtualizationASTVisitor extends ASTWalkVisitor {
+
+	int callSites = 0;     // chiamate di metodo
+	int devirtualized = 0; // chiamate di metodo risolte staticamente
+
+	// indicizzate dal nome della classe
+	private ClassNode[] classes = new ClassNode[0];
+	private final List<List<ClassNode>> subclasses = new ArrayList<>();
+	private ClassNode currentClass = null;
+
+	DevirtualizationASTVisitor() {}
+
+	// metodo che occupa la posizione "offset" nella dispatch table della classe
+	private MethodNode implementation(ClassNode c, int offset) {
+		for (; c != null; c = c.superID == null ? null : classes[c.superName])
+			for (MethodNode m : c.methods)
+				if (m.offset == offset) return m;
+		return null;
+	}
+
+	// metodo invocato, se nessuna sottoclasse lo ridefinisce; null altrimenti
+	private MethodNode uniqueTarget(int className, int offset) {
+		Deque<ClassNode> todo = new ArrayDeque<>(subclasses.get(className));
+		while (!todo.isEmpty()) {
+			ClassNode d = todo.pop();
+			for (MethodNode m : d.methods)
+				if (m.offset == offset) return null;
+			todo.addAll(subclasses.get(d.name));
+		}
+		return implementation(classes[className], offset);
+	}
+
+	@Override
+	public Void visitNode(ProgLetInNode n) {
+		int size = 0;
+		for (DecNode dec : n.declist)
+			if (dec instanceof ClassNode) size = Math.max(size, ((ClassNode) dec).name + 1);
+		classes = new ClassNode[size];
+		while (subclasses.size() < size) subclasses.add(new ArrayList<>());
+		for (DecNode dec : n.declist)
+			if (dec instanceof ClassNode) {
+				ClassNode c = (ClassNode) dec;
+				classes[c.name] = c;
+				if (c.superID != null) subclasses.get(c.superName).add(c);
+			}
+		return super.visitNode(n);
+	}
+
+	@Override
+	public Void visitNode(ClassNode n) {
+		currentClass = n;
+		super.visitNode(n);
+		currentClass = null;
+		return null;
+	}
+
+	@Override
+	public Void visitNode(ClassCallNode n) {
+		callSites++;
+		n.target = uniqueTarget(((RefTypeNode) n.entry.type).name, n.methodEntry.offset);
+		if (n.target != null) devirtualized++;
+		return super.visitNode(n);
+	}
+
+	@Override
+	public Void visitNode(CallNode n) {
+		if (n.entry.type instanceof MethodTypeNode) { // chiamata di un metodo della classe corrente
+			callSites++;
+			n.target = uniqueTarget(currentClass.name, n.entry.offset);
+			if (n.target != null) devirtualized++;
+		}
+		return super.visitNode(n);
+	}
+}
@@ -0,0 +1,44 @@
+package compiler;
+
+import compiler.lib.CompilerOptions;
+import org.antlr.v4.runtime.CharStreams;
+import svm.ExecuteVM;
+import svm.Executable;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+// confronta accesso non locale tramite catena degli Access Link e tramite display
+// (uso: DisplayBenchmark [file.fool], di default examples/nested.fool)
+public class DisplayBenchmark {
+
+	private static final int WARMUP = 200;
+	private static final int RUNS = 1000;
+
+	public static void main(String[] args) throws Exception {
+		String fileName = args.length > 0 ? args[0] : "examples/nested.fool";
+
+		for (boolean display : new boolean[]{false, true}) {
+			CompilerOptions options = new CompilerOptions();
+			options.display = display;
+			String asm = FOOLCompiler.compile(CharStreams.fromFileName(fileName), options);
+			if (asm == null) {
+				System.out.println("Errors compiling " + fileName);
+				System.exit(1);
+			}
+			Executable code = FOOLCompiler.assemble(asm);
+
+			PrintStream stdout = System.out;
+			System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+			for (int i = 0; i < WARMUP; i++) new ExecuteVM(code).cpu();
+			long start = System.nanoTime();
+			for (int i = 0; i < RUNS; i++) new ExecuteVM(code).cpu();
+			long elapsed = System.nanoTime() - start;
+			System.setOut(stdout);
+
+			System.out.println((display ? "display:      " : "access links: ")
+					+ asm.split("\n").length + " asm lines, "
+					+ String.format("%.3f", elapsed / 1e6 / RUNS) + " ms per run");
+		}
+	}
+}
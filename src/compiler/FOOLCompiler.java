@@ -0,0 +1,79 @@
+package compiler;
+
+import compiler.exc.IncomplException;
+import compiler.exc.TypeException;
+import compiler.lib.CompilerOptions;
+import compiler.lib.FOOLlib;
+import compiler.lib.Node;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import svm.Executable;
+import svm.SVMLexer;
+import svm.SVMParser;
+import svm.Verifier;
+
+import java.util.List;
+
+// pipeline di compilazione senza output di debug (vedi Test per la versione commentata passo passo)
+public class FOOLCompiler {
+
+	// compila un sorgente FOOL in codice assembly SVM; ritorna null in caso di errori front-end
+	public static String compile(CharStream chars, CompilerOptions options) {
+		// nomi, tipi e relazioni tra i tipi del programma, condivisi dalle fasi di questa compilazione
+		// (le loro tabelle sono indicizzate dagli identificatori del NamePool, validi solo qui)
+		NamePool names = new NamePool();
+		TypeFactory types = new TypeFactory();
+		Node ast = frontEnd(chars, options, names, types, new TypeRels());
+		if (ast == null) return null;
+
+		if (options.lambdaLifting) ast = new LambdaLiftingASTVisitor(names, types).liftAll(ast);
+		if (options.devirtualization) new DevirtualizationASTVisitor().visit(ast);
+		if (options.scalarReplacement) ast = new ScalarReplacementASTVisitor(names, types).replaceAll(ast);
+
+		return new CodeGenerationASTVisitor(options).visit(ast);
+	}
+
+	// analisi lessicale e sintattica, symbol table e type checking: ritorna l'EAST, null in caso di errori
+	public static Node frontEnd(CharStream chars) {
+		return frontEnd(chars, new CompilerOptions());
+	}
+
+	public static Node frontEnd(CharStream chars, CompilerOptions options) {
+		return frontEnd(chars, options, new NamePool(), new TypeFactory(), new TypeRels());
+	}
+
+	static Node frontEnd(CharStream chars, CompilerOptions options, NamePool names, TypeFactory types, TypeRels rels) {
+		FOOLlib.reset();
+
+		FOOLLexer lexer = new FOOLLexer(chars);
+		FOOLParser parser = new FOOLParser(new CommonTokenStream(lexer));
+		Node ast = new ASTGenerationSTVisitor(names, types).visit(parser.prog());
+		if (lexer.lexicalErrors + parser.getNumberOfSyntaxErrors() > 0) return null;
+
+		SymbolTableASTVisitor symtableVisitor = new SymbolTableASTVisitor(types);
+		symtableVisitor.visit(ast);
+		if (symtableVisitor.stErrors > 0) return null;
+
+		try {
+			if (options.parallelTypeChecking) new ParallelTypeChecker(types, rels).check(ast);
+			else new TypeCheckEASTVisitor(types, rels).visit(ast);
+		} catch (IncomplException | TypeException e) {
+			return null;
+		}
+		if (FOOLlib.typeErrors > 0) return null;
+		return ast;
+	}
+
+	// assembla e verifica il codice SVM (vedi Verifier); ritorna null in caso di errori
+	public static Executable assemble(String asm) {
+		SVMLexer lexer = new SVMLexer(CharStreams.fromString(asm));
+		SVMParser parser = new SVMParser(new CommonTokenStream(lexer));
+		parser.assembly();
+		if (lexer.lexicalErrors + parser.getNumberOfSyntaxErrors() > 0) return null;
+		Executable program = new Executable(parser);
+		List<String> errors = Verifier.verify(program);
+		errors.forEach(System.err::println);
+		return errors.isEmpty() ? program : null;
+	}
+}
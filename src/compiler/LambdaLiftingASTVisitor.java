@@ -0,0 +1,203 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.DecNode;
+import compiler.lib.Node;
+
+import java.util.*;
+
+// Lambda lifting: le funzioni dichiarate dentro altre funzioni, che non contengono a loro volta
+// funzioni e che catturano al piu' MAX_CAPTURED variabili/parametri delle funzioni che le
+// racchiudono, vengono spostate al livello globale (subito prima della dichiarazione globale
+// che le conteneva). I valori catturati diventano parametri aggiuntivi, passati esplicitamente
+// ad ogni chiamata: l'Access Link delle funzioni sollevate e' il frame globale, che non richiede
+// di risalire la catena statica. Il procedimento e' ripetuto finche' nessuna funzione e' sollevabile.
+public class LambdaLiftingASTVisitor extends ASTCopyVisitor {
+
+	static final int MAX_CAPTURED = 4;
+
+	int liftedCount = 0; // numero totale di funzioni sollevate
+
+	private Map<STentry, Scope> lifted;                          // funzioni da sollevare (per entry della dichiarazione)
+	private final List<DecNode> liftedDecs = new ArrayList<>(); // funzioni sollevate da inserire prima della dichiarazione globale corrente
+	private final NamePool names; // della compilazione: vi si aggiungono i nomi delle funzioni sollevate
+	private final TypeFactory types; // della compilazione, per la symbol table ricostruita
+
+	LambdaLiftingASTVisitor(NamePool names, TypeFactory types) {
+		this.names = names;
+		this.types = types;
+	}
+
+	// applica il lambda lifting fino a punto fisso; l'AST ritornato e' nuovamente arricchito dalla symbol table
+	Node liftAll(Node ast) {
+		while (true) {
+			CaptureAnalysis analysis = new CaptureAnalysis(names);
+			analysis.visit(ast);
+			lifted = analysis.liftable();
+			if (lifted.isEmpty()) return ast;
+			liftedCount += lifted.size();
+			ast = visit(ast);
+			new SymbolTableASTVisitor(types).visit(ast);
+		}
+	}
+
+	@Override
+	public Node visitNode(ProgLetInNode n) {
+		List<DecNode> declist = new ArrayList<>();
+		for (DecNode dec : n.declist) {
+			DecNode d = (DecNode) visit(dec);
+			declist.addAll(liftedDecs);
+			liftedDecs.clear();
+			if (d != null) declist.add(d);
+		}
+		return at(n, new ProgLetInNode(declist, visit(n.exp)));
+	}
+
+	@Override
+	public Node visitNode(FunNode n) {
+		Scope s = lifted.get(n.entry);
+		if (s == null) return super.visitNode(n);
+		List<ParNode> parlist = copyPars(n.parlist);
+		for (Map.Entry<STentry, Integer> c : s.captured.entrySet())
+			parlist.add(at(n, new ParNode(names.name(c.getValue()), c.getValue(), c.getKey().type)));
+		liftedDecs.add(at(n, new FunNode(s.liftedId, s.liftedName, n.retType, parlist, copyDecs(n.declist), visit(n.exp))));
+		return null; // rimossa dalle dichiarazioni della funzione che la conteneva
+	}
+
+	@Override
+	public Node visitNode(CallNode n) {
+		Scope s = lifted.get(n.entry);
+		if (s == null) return super.visitNode(n);
+		List<Node> arglist = copyArgs(n.arglist);
+		for (int name : s.captured.values())
+			arglist.add(at(n, new IdNode(names.name(name), name)));
+		return at(n, new CallNode(s.liftedId, s.liftedName, arglist));
+	}
+
+	// scope di una funzione durante l'analisi
+	private static class Scope {
+		final FunNode fun;
+		final Scope outer;       // funzione che la contiene (null se globale)
+		final FunNode topLevel;  // dichiarazione globale che la contiene
+		final int nl;            // nesting level del corpo
+		final BitSet names = new BitSet();                            // parametri e dichiarazioni locali
+		final Map<STentry, Integer> captured = new LinkedHashMap<>(); // variabili catturate, con il loro nome
+		boolean liftable;
+		String liftedId;
+		int liftedName;
+
+		Scope(FunNode f, Scope o, FunNode t, int n) {
+			fun = f;
+			outer = o;
+			topLevel = t;
+			nl = n;
+		}
+	}
+
+	// calcola per ogni funzione le variabili catturate e se puo' essere sollevata
+	private static class CaptureAnalysis extends ASTWalkVisitor {
+
+		private final Map<STentry, Scope> scopes = new LinkedHashMap<>();
+		private final Map<STentry, List<Scope>> callSites = new HashMap<>(); // scope (piu' interno) di ogni chiamata
+		private final BitSet globalNames = new BitSet();
+		private final NamePool names;
+		private Scope current = null;
+		private FunNode topLevel = null;
+
+		CaptureAnalysis(NamePool names) {
+			this.names = names;
+		}
+
+		// funzioni sollevabili: nessuna chiamata puo' vedere le variabili catturate oscurate da altre dichiarazioni
+		Map<STentry, Scope> liftable() {
+			Map<STentry, Scope> result = new HashMap<>();
+			for (Scope s : scopes.values()) {
+				if (!s.liftable || s.captured.size() > MAX_CAPTURED) continue;
+				boolean ok = true;
+				for (Map.Entry<STentry, Integer> c : s.captured.entrySet()) {
+					if (s.names.get(c.getValue())) ok = false;
+					for (Scope site : callSites.getOrDefault(s.fun.entry, Collections.emptyList()))
+						for (Scope t = site; t != null && t.nl > c.getKey().nl; t = t.outer)
+							if (t != s && t.names.get(c.getValue())) ok = false;
+				}
+				if (!ok) continue;
+				String id = s.outer.fun.id + "_" + s.fun.id; // "_" non compare negli ID FOOL: nessun conflitto con nomi utente
+				for (int i = 1; globalNames.get(names.id(id)); i++) id = s.outer.fun.id + "_" + s.fun.id + i;
+				globalNames.set(names.id(id));
+				s.liftedId = id;
+				s.liftedName = names.id(id);
+				result.put(s.fun.entry, s);
+			}
+			return result;
+		}
+
+		private void capture(STentry entry, int name) {
+			for (Scope s = current; s != null; s = s.outer)
+				if (entry.nl > 0 && entry.nl < s.nl) s.captured.putIfAbsent(entry, name);
+		}
+
+		@Override
+		public Void visitNode(ProgLetInNode n) {
+			for (DecNode dec : n.declist) {
+				if (dec instanceof FunNode) globalNames.set(((FunNode) dec).name);
+				if (dec instanceof VarNode) globalNames.set(((VarNode) dec).name);
+				if (dec instanceof ClassNode) globalNames.set(((ClassNode) dec).name);
+			}
+			for (DecNode dec : n.declist) {
+				topLevel = dec instanceof FunNode ? (FunNode) dec : null;
+				visit(dec);
+			}
+			topLevel = null;
+			visit(n.exp);
+			return null;
+		}
+
+		@Override
+		public Void visitNode(ClassNode n) {
+			return null; // le funzioni dentro ai metodi non vengono sollevate
+		}
+
+		@Override
+		public Void visitNode(FunNode n) {
+			Scope s = new Scope(n, current, topLevel, current == null ? 1 : current.nl + 1);
+			s.liftable = current != null;
+			for (ParNode par : n.parlist) s.names.set(par.name);
+			for (DecNode dec : n.declist) {
+				if (dec instanceof VarNode) s.names.set(((VarNode) dec).name);
+				if (dec instanceof FunNode) {
+					s.names.set(((FunNode) dec).name);
+					s.liftable = false; // prima vanno sollevate le funzioni annidate
+				}
+			}
+			scopes.put(n.entry, s);
+			current = s;
+			super.visitNode(n);
+			current = s.outer;
+			return null;
+		}
+
+		@Override
+		public Void visitNode(IdNode n) {
+			capture(n.entry, n.name);
+			return null;
+		}
+
+		@Override
+		public Void visitNode(ClassCallNode n) {
+			capture(n.entry, n.objectName);
+			return super.visitNode(n);
+		}
+
+		@Override
+		public Void visitNode(CallNode n) {
+			for (Scope s = current; s != null; s = s.outer) {
+				if (n.entry == s.fun.entry || n.entry.nl >= s.nl) continue; // ricorsione o funzione interna
+				// una funzione globale e' visibile dalla funzione sollevata solo se dichiarata prima
+				// della dichiarazione globale che la conteneva (offset maggiore)
+				if (n.entry.nl > 0 || n.entry.offset <= s.topLevel.entry.offset) s.liftable = false;
+			}
+			callSites.computeIfAbsent(n.entry, e -> new ArrayList<>()).add(current);
+			return super.visitNode(n);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package compiler;
+
+import compiler.lib.CompilerOptions;
+import org.antlr.v4.runtime.CharStreams;
+import svm.ExecuteVM;
+import svm.Executable;
+import svm.Memory;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// confronta il costo di esecuzione con le diverse memorie della VM: array Java, buffer diretto e
+// file mappato (uso: MemoryBenchmark [file.fool [celle [array|direct|mapped ...]]], di default
+// quicksort.fool, MEMSIZE celle e tutte le memorie). Ogni memoria usata rende polimorfi gli accessi
+// dell'interprete: per misurarne una sola senza interferenze va indicata solo quella.
+public class MemoryBenchmark {
+
+	private static final int WARMUP = 200;
+	private static final int RUNS = 1000;
+
+	public static void main(String[] args) throws Exception {
+		String fileName = args.length > 0 ? args[0] : "quicksort.fool";
+		int size = args.length > 1 ? Integer.parseInt(args[1]) : ExecuteVM.MEMSIZE;
+		String[] backends = args.length > 2
+				? Arrays.copyOfRange(args, 2, args.length)
+				: new String[]{"array", "direct", "mapped"};
+
+		String asm = FOOLCompiler.compile(CharStreams.fromFileName(fileName), new CompilerOptions());
+		if (asm == null) {
+			System.out.println("Errors compiling " + fileName);
+			System.exit(1);
+		}
+		Executable program = FOOLCompiler.assemble(asm);
+		PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+
+		for (String backend : backends) {
+			Path file = null;
+			Memory memory;
+			switch (backend) {
+				case "array":
+					memory = Memory.array(size);
+					break;
+				case "direct":
+					memory = Memory.direct(size);
+					break;
+				case "mapped":
+					file = Files.createTempFile("svm", ".mem");
+					memory = Memory.mapped(file, size);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown memory " + backend);
+			}
+			for (int i = 0; i < WARMUP; i++) run(program, memory, discard);
+			long elapsed = 0;
+			for (int i = 0; i < RUNS; i++) elapsed += run(program, memory, discard);
+			System.out.println(String.format("%-8s", backend + ":") + size + " cells, "
+					+ String.format("%.3f", elapsed / 1e6 / RUNS) + " ms per run");
+			if (file != null) Files.delete(file);
+		}
+	}
+
+	// durata di un'esecuzione; la memoria non e' azzerata tra un'esecuzione e l'altra (il codice generato
+	// scrive ogni cella prima di leggerla), per cui il costo non dipende dalla sua dimensione
+	private static long run(Executable program, Memory memory, PrintStream out) {
+		long start = System.nanoTime();
+		new ExecuteVM(program, memory, out).cpu();
+		return System.nanoTime() - start;
+	}
+}
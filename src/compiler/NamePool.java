@@ -0,0 +1,36 @@
+package compiler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// pool degli identificatori di una compilazione: ogni nome ha un'unica istanza String e un identificatore
+// intero denso, risolto una volta sola durante la generazione dell'AST e memorizzato nei nodi; le fasi
+// successive indicizzano con esso array (symbol table, tabelle delle classi) senza calcolare hash di stringhe.
+// Non e' thread-safe: i nomi sono aggiunti solo dalla generazione dell'AST e dalle trasformazioni che
+// introducono nuovi nomi (sequenziali); le altre fasi usano gli identificatori gia' nei nodi
+public class NamePool {
+
+	private final Map<String, Integer> ids = new HashMap<>();
+	private final List<String> names = new ArrayList<>();
+
+	// identificatore intero del nome (0, 1, 2, ... nell'ordine in cui i nomi sono incontrati)
+	public int id(String name) {
+		Integer id = ids.get(name);
+		if (id != null) return id;
+		names.add(name);
+		ids.put(name, names.size() - 1);
+		return names.size() - 1;
+	}
+
+	// istanza unica del nome con identificatore "id"
+	public String name(int id) {
+		return names.get(id);
+	}
+
+	// numero di nomi nel pool
+	public int size() {
+		return names.size();
+	}
+}
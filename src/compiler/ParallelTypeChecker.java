@@ -0,0 +1,98 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.exc.IncomplException;
+import compiler.exc.TypeException;
+import compiler.lib.Node;
+import compiler.lib.TypeNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// type checking con le dichiarazioni globali (e i metodi delle classi) verificate in parallelo su un
+// ForkJoinPool: registrata la gerarchia delle classi in TypeRels, che da quel momento viene solo letta,
+// i corpi sono indipendenti. Le dichiarazioni sono divise in blocchi consecutivi, uno per task; ogni
+// task ha il proprio visitor e raccoglie i propri errori, stampati poi nell'ordine del sorgente.
+public class ParallelTypeChecker {
+
+	private static final int TASKS_PER_THREAD = 4;
+
+	private final ForkJoinPool pool;
+	private final TypeFactory types; // della compilazione
+	private final TypeRels rels;
+
+	ParallelTypeChecker(TypeFactory types, TypeRels rels) {
+		this(types, rels, ForkJoinPool.commonPool());
+	}
+
+	ParallelTypeChecker(TypeFactory types, TypeRels rels, ForkJoinPool pool) {
+		this.types = types;
+		this.rels = rels;
+		this.pool = pool;
+	}
+
+	// ritorna il tipo dell'espressione principale, come TypeCheckEASTVisitor.visit(ast)
+	public TypeNode check(Node ast) throws TypeException {
+		if (!(ast instanceof ProgLetInNode)) return new TypeCheckEASTVisitor(types, rels).visit(ast);
+		ProgLetInNode prog = (ProgLetInNode) ast;
+
+		for (Node dec : prog.declist)
+			if (dec instanceof ClassNode) {
+				ClassNode c = (ClassNode) dec;
+				rels.addClass(types.refType(c.id, c.name),
+						c.superID == null ? null : types.refType(c.superID, c.superName));
+			}
+
+		List<Node> decs = new ArrayList<>();
+		for (Node dec : prog.declist) {
+			if (dec instanceof ClassNode && ((ClassNode) dec).superID == null)
+				decs.addAll(((ClassNode) dec).methods); // e' quanto fa visitNode(ClassNode) dopo addClass
+			else
+				decs.add(dec);
+		}
+
+		List<List<String>> diagnostics = new ArrayList<>();
+		List<Callable<TypeNode>> tasks = new ArrayList<>();
+		int chunk = Math.max(1, decs.size() / (TASKS_PER_THREAD * pool.getParallelism()));
+		for (int i = 0; i < decs.size(); i += chunk)
+			tasks.add(declarationsTask(decs.subList(i, Math.min(i + chunk, decs.size())), diagnostics));
+		List<String> mainDiagnostics = new ArrayList<>();
+		diagnostics.add(mainDiagnostics);
+		tasks.add(() -> new TypeCheckEASTVisitor(types, rels, mainDiagnostics).visit(prog.exp));
+
+		List<Future<TypeNode>> results = pool.invokeAll(tasks);
+		for (List<String> errors : diagnostics)
+			for (String error : errors) System.out.println("Type checking error: " + error);
+		try {
+			return results.get(results.size() - 1).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IncomplException();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof TypeException) throw (TypeException) e.getCause();
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	// verifica delle dichiarazioni, come nel ciclo di TypeCheckEASTVisitor.visitNode(ProgLetInNode)
+	private Callable<TypeNode> declarationsTask(List<Node> decs, List<List<String>> diagnostics) {
+		List<String> errors = new ArrayList<>();
+		diagnostics.add(errors);
+		return () -> {
+			TypeCheckEASTVisitor visitor = new TypeCheckEASTVisitor(types, rels, errors);
+			for (Node dec : decs)
+				try {
+					visitor.visit(dec);
+				} catch (IncomplException e) {
+				} catch (TypeException e) {
+					errors.add(e.text);
+				}
+			return null;
+		};
+	}
+}
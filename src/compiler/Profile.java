@@ -0,0 +1,63 @@
+package compiler;
+
+import compiler.lib.CompilerOptions;
+import org.antlr.v4.runtime.CharStreams;
+import svm.ExecuteVM;
+import svm.AllocationProfiler;
+import svm.Executable;
+import svm.Profiler;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+
+// esegue un programma FOOL con il profiler a campionamento e scrive gli stack campionati in formato
+// collapsed in file.fool.folded, da passare a flamegraph.pl (uso: Profile file.fool [-interval N]
+// [-lines] [-alloc] [opzioni del compilatore], di default un campione ogni 1000 salti o chiamate).
+// Con -alloc stampa anche le allocazioni per espressione new e per classe
+public class Profile {
+
+	public static void main(String[] args) throws Exception {
+		String fileName = args.length > 0 ? args[0] : "quicksort.fool";
+		long interval = 1000;
+		boolean lines = false;
+		boolean alloc = false;
+		CompilerOptions options = new CompilerOptions();
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("-interval")) interval = Long.parseLong(args[++i]);
+			else if (args[i].equals("-lines")) lines = true;
+			else if (args[i].equals("-alloc")) alloc = true;
+			else options.set(args[i]);
+		}
+
+		String asm = FOOLCompiler.compile(CharStreams.fromFileName(fileName), options);
+		Executable program = asm == null ? null : FOOLCompiler.assemble(asm);
+		if (program == null) {
+			System.out.println("Errors compiling " + fileName);
+			System.exit(1);
+		}
+
+		Profiler profiler = new Profiler(program, interval, lines);
+		AllocationProfiler allocations = new AllocationProfiler(program);
+		ExecuteVM vm = new ExecuteVM(program);
+		if (alloc) vm.profileAllocations(allocations);
+		profiler.run(vm);
+		try (PrintStream out = new PrintStream(fileName + ".folded")) {
+			profiler.writeCollapsed(out);
+		}
+		System.out.println(profiler.samples() + " samples written to " + fileName + ".folded");
+
+		// campioni per funzione in esecuzione (ultima dello stack)
+		Map<String, Long> self = new HashMap<>();
+		profiler.stacks().forEach((stack, n) -> self.merge(stack.substring(stack.lastIndexOf(';') + 1), n, Long::sum));
+		self.entrySet().stream()
+				.sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+				.limit(10)
+				.forEach(e -> System.out.println(String.format("%6.2f%% ", 100.0 * e.getValue() / profiler.samples()) + e.getKey()));
+
+		if (alloc) {
+			System.out.println();
+			allocations.report(System.out);
+		}
+	}
+}
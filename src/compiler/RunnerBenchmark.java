@@ -0,0 +1,75 @@
+package compiler;
+
+import compiler.lib.CompilerOptions;
+import org.antlr.v4.runtime.CharStreams;
+import svm.ExecuteVM;
+import svm.Executable;
+import svm.VMRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// esegue molte volte i programmi dati, in sequenza e con il VMRunner, controllando che ogni
+// esecuzione concorrente produca lo stesso output di quella sequenziale
+// (uso: RunnerBenchmark [file.fool ...], di default i programmi di esempio)
+public class RunnerBenchmark {
+
+	private static final int RUNS = 3000;
+
+	public static void main(String[] args) throws Exception {
+		String[] fileNames = args.length > 0 ? args : new String[]{"quicksort.fool", "bankloan.fool", "examples/nested.fool"};
+
+		List<Executable> programs = new ArrayList<>();
+		List<String> expected = new ArrayList<>();
+		for (String fileName : fileNames) {
+			String asm = FOOLCompiler.compile(CharStreams.fromFileName(fileName), new CompilerOptions());
+			if (asm == null) {
+				System.out.println("Errors compiling " + fileName);
+				System.exit(1);
+			}
+			Executable program = FOOLCompiler.assemble(asm);
+			programs.add(program);
+			expected.add(sequentialOutput(program));
+		}
+		List<Executable> runs = new ArrayList<>();
+		for (int i = 0; i < RUNS; i++) runs.add(programs.get(i % programs.size()));
+
+		PrintStream stdout = System.out;
+		System.setOut(new PrintStream(new ByteArrayOutputStream()));
+		long start = System.nanoTime();
+		for (Executable program : runs) new ExecuteVM(program).cpu();
+		long sequential = System.nanoTime() - start;
+		System.setOut(stdout);
+
+		try (VMRunner runner = new VMRunner()) {
+			start = System.nanoTime();
+			List<VMRunner.Result> results = runner.runAll(runs);
+			long concurrent = System.nanoTime() - start;
+
+			int mismatches = 0;
+			long vmNanos = 0;
+			for (int i = 0; i < RUNS; i++) {
+				VMRunner.Result r = results.get(i);
+				if (r.status != VMRunner.Status.HALTED || !r.output.equals(expected.get(i % programs.size()))) mismatches++;
+				vmNanos += r.nanos;
+			}
+			System.out.println(RUNS + " runs of " + programs.size() + " programs");
+			System.out.println("sequential: " + String.format("%.1f", sequential / 1e6) + " ms");
+			System.out.println("VMRunner:   " + String.format("%.1f", concurrent / 1e6) + " ms on "
+					+ Runtime.getRuntime().availableProcessors() + " threads, "
+					+ String.format("%.3f", vmNanos / 1e6 / RUNS) + " ms per run, " + mismatches + " mismatching outputs");
+		}
+	}
+
+	private static String sequentialOutput(Executable program) {
+		PrintStream stdout = System.out;
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(output));
+		new ExecuteVM(program).cpu();
+		System.out.flush();
+		System.setOut(stdout);
+		return output.toString();
+	}
+}
@@ -0,0 +1,106 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.DecNode;
+import compiler.lib.Node;
+import compiler.lib.TypeNode;
+
+import java.util.*;
+
+// Scalar replacement: un oggetto creato da una dichiarazione "var x:C = new D(...)" non sfugge alla
+// funzione che lo dichiara se x e' usato solo come ricevente di chiamate devirtualizzate a metodi
+// banali (campo o costante), e mai passato, restituito o confrontato. In tal caso l'oggetto non viene
+// allocato sullo heap: ogni campo diventa una variabile locale, inizializzata dall'argomento
+// corrispondente (nello stesso ordine di valutazione), e le chiamate leggono direttamente la variabile
+// del campo o la costante. Richiede la devirtualizzazione (campo "target" delle chiamate).
+public class ScalarReplacementASTVisitor extends ASTCopyVisitor {
+
+	int allocations = 0; // variabili inizializzate con new
+	int replaced = 0;    // allocazioni sostituite da variabili locali
+
+	private Map<STentry, int[]> scalarized; // variabili degli oggetti sostituiti: nomi dei campi
+	private final NamePool names;          // della compilazione: vi si aggiungono i nomi dei campi
+	private final TypeFactory types;       // della compilazione, per la symbol table ricostruita
+
+	ScalarReplacementASTVisitor(NamePool names, TypeFactory types) {
+		this.names = names;
+		this.types = types;
+	}
+
+	// l'AST ritornato e' nuovamente arricchito dalla symbol table e devirtualizzato
+	Node replaceAll(Node ast) {
+		EscapeAnalysis analysis = new EscapeAnalysis();
+		analysis.visit(ast);
+		allocations = analysis.candidates.size();
+		scalarized = new HashMap<>();
+		for (Map.Entry<STentry, VarNode> c : analysis.candidates.entrySet()) {
+			if (analysis.escaping.contains(c.getKey())) continue;
+			VarNode var = c.getValue();
+			int[] fields = new int[((NewNode) var.exp).arglist.size()];
+			// "_" non compare negli ID FOOL e un ID inizia con una lettera: nessun conflitto con
+			// nomi utente o di funzioni sollevate
+			for (int i = 0; i < fields.length; i++) fields[i] = names.id(var.id + "_" + i);
+			scalarized.put(c.getKey(), fields);
+		}
+		replaced = scalarized.size();
+		if (scalarized.isEmpty()) return ast;
+		ast = visit(ast);
+		new SymbolTableASTVisitor(types).visit(ast);
+		new DevirtualizationASTVisitor().visit(ast);
+		return ast;
+	}
+
+	@Override
+	protected List<DecNode> copyDecs(List<? extends DecNode> decs) {
+		List<DecNode> copy = new ArrayList<>();
+		for (DecNode dec : decs) {
+			int[] fields = dec instanceof VarNode ? scalarized.get(((VarNode) dec).entry) : null;
+			if (fields == null) {
+				DecNode d = (DecNode) visit(dec);
+				if (d != null) copy.add(d);
+				continue;
+			}
+			NewNode newNode = (NewNode) ((VarNode) dec).exp;
+			List<TypeNode> fieldTypes = ((ClassTypeNode) newNode.entry.type).allFields;
+			for (int i = 0; i < fields.length; i++)
+				copy.add(at(dec, new VarNode(names.name(fields[i]), fields[i], fieldTypes.get(i), visit(newNode.arglist.get(i)))));
+		}
+		return copy;
+	}
+
+	@Override
+	public Node visitNode(ClassCallNode n) {
+		int[] fields = scalarized.get(n.entry);
+		if (fields == null) return super.visitNode(n);
+		if (n.target.exp instanceof IdNode) { // il campo i-esimo ha offset -i-1
+			int field = fields[-((IdNode) n.target.exp).entry.offset - 1];
+			return at(n, new IdNode(names.name(field), field));
+		}
+		return visit(n.target.exp); // costante
+	}
+
+	// variabili inizializzate con new e variabili il cui oggetto sfugge
+	private static class EscapeAnalysis extends ASTWalkVisitor {
+
+		final Map<STentry, VarNode> candidates = new LinkedHashMap<>();
+		final Set<STentry> escaping = new HashSet<>();
+
+		@Override
+		public Void visitNode(VarNode n) {
+			if (n.exp instanceof NewNode) candidates.put(n.entry, n);
+			return super.visitNode(n);
+		}
+
+		@Override
+		public Void visitNode(IdNode n) {
+			escaping.add(n.entry); // il valore della variabile e' usato come tale
+			return null;
+		}
+
+		@Override
+		public Void visitNode(ClassCallNode n) {
+			if (n.target == null || !CodeGenerationASTVisitor.isTrivial(n.target)) escaping.add(n.entry);
+			return super.visitNode(n);
+		}
+	}
+}
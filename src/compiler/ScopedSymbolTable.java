@@ -0,0 +1,79 @@
+package compiler;
+
+import java.util.Arrays;
+
+// symbol table a scope annidati con ricerca in tempo costante: per ogni identificatore e' mantenuta la
+// catena delle dichiarazioni visibili (la prima e' la piu' interna), e un log degli identificatori
+// dichiarati permette, all'uscita da uno scope, di ripristinare le dichiarazioni che erano nascoste;
+// le catene sono indicizzate dall'identificatore intero del nome nel NamePool, gia' memorizzato nei nodi
+class ScopedSymbolTable {
+
+	private static class Binding {
+		STentry entry;
+		final int level;
+		final Binding shadowed; // dichiarazione nascosta da questa (in uno scope piu' esterno)
+
+		Binding(STentry entry, int level, Binding shadowed) {
+			this.entry = entry;
+			this.level = level;
+			this.shadowed = shadowed;
+		}
+	}
+
+	private Binding[] bindings = new Binding[256];
+	private int[] undoLog = new int[64]; // identificatori dichiarati, nell'ordine
+	private int logSize = 0;
+	private int[] scopeStart = new int[16]; // posizione nel log dell'inizio di ciascuno scope aperto
+	private int scopes = 0;
+
+	// nesting level dello scope corrente
+	int level() {
+		return scopes - 1;
+	}
+
+	void enterScope() {
+		if (scopes == scopeStart.length) scopeStart = Arrays.copyOf(scopeStart, 2 * scopes);
+		scopeStart[scopes++] = logSize;
+	}
+
+	void exitScope() {
+		int start = scopeStart[--scopes];
+		while (logSize > start) {
+			int id = undoLog[--logSize];
+			bindings[id] = bindings[id].shadowed;
+		}
+	}
+
+	// dichiara "id" nello scope corrente; se vi era gia' dichiarato la dichiarazione viene sostituita
+	// e quella precedente ritornata, altrimenti ritorna null
+	STentry put(int id, STentry entry) {
+		if (id >= bindings.length) bindings = Arrays.copyOf(bindings, Math.max(2 * bindings.length, id + 1));
+		Binding top = bindings[id];
+		if (top != null && top.level == level()) {
+			STentry previous = top.entry;
+			top.entry = entry;
+			return previous;
+		}
+		bindings[id] = new Binding(entry, level(), top);
+		if (logSize == undoLog.length) undoLog = Arrays.copyOf(undoLog, 2 * logSize);
+		undoLog[logSize++] = id;
+		return null;
+	}
+
+	// dichiarazione piu' interna visibile di "id", null se non dichiarato
+	STentry lookup(int id) {
+		Binding top = binding(id);
+		return top == null ? null : top.entry;
+	}
+
+	// dichiarazione di "id" a livello globale (nesting level 0), anche se nascosta
+	STentry lookupGlobal(int id) {
+		Binding b = binding(id);
+		while (b != null && b.level > 0) b = b.shadowed;
+		return b == null ? null : b.entry;
+	}
+
+	private Binding binding(int id) {
+		return id < bindings.length ? bindings[id] : null;
+	}
+}
@@ -11,27 +11,64 @@ import java.util.*;
 
 public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 	
-	private List<Map<String, STentry>> symTable = new ArrayList<>();
-	private Map<String, Map<String, STentry>> classTable = new HashMap<>();
-	private HashSet<String> localDeclaration;
+	private ScopedSymbolTable symTable = new ScopedSymbolTable();
+	private VirtualTable[] classTable = new VirtualTable[16]; // per nome della classe
+	private BitSet localDeclaration;
 	private int nestingLevel = 0; // current nesting level
 	private int decOffset = -2; // counter for offset of local declarations at current nesting level
 	int stErrors = 0;
+	private final TypeFactory types; // della compilazione
 
-    SymbolTableASTVisitor() {
+    SymbolTableASTVisitor(TypeFactory types) {
+        this.types = types;
     }
 
-    SymbolTableASTVisitor(boolean debug) {
+    SymbolTableASTVisitor(TypeFactory types, boolean debug) {
         super(debug);
+        this.types = types;
     } // enables print for debugging
 
 
-    private STentry stLookup(String id) {
-        int j = nestingLevel;
-        STentry entry = null;
-        while (j >= 0 && entry == null)
-            entry = symTable.get(j--).get(id);
-        return entry;
+    private STentry stLookup(int name) {
+        return symTable.lookup(name);
+    }
+
+    // tabella virtuale di una classe: entry dei campi e dei metodi visibili (ereditati compresi),
+    // indicizzate dal nome; "members" elenca i nomi presenti nell'ordine di inserimento
+    private static class VirtualTable {
+        private STentry[] entries = new STentry[16];
+        private int[] members = new int[8];
+        private int size = 0;
+
+        VirtualTable() {
+        }
+
+        VirtualTable(VirtualTable superTable) { // copia della tabella della superclasse
+            entries = superTable.entries.clone();
+            members = superTable.members.clone();
+            size = superTable.size;
+        }
+
+        STentry get(int name) {
+            return name < entries.length ? entries[name] : null;
+        }
+
+        void put(int name, STentry entry) {
+            if (name >= entries.length) entries = Arrays.copyOf(entries, Math.max(2 * entries.length, name + 1));
+            if (entries[name] == null) {
+                if (size == members.length) members = Arrays.copyOf(members, 2 * size);
+                members[size++] = name;
+            }
+            entries[name] = entry;
+        }
+
+        void forEach(ScopedSymbolTable symTable) { // dichiara i membri nello scope corrente
+            for (int i = 0; i < size; i++) symTable.put(members[i], entries[members[i]]);
+        }
+    }
+
+    private VirtualTable classTable(int name) {
+        return name >= 0 && name < classTable.length ? classTable[name] : null;
     }
 
 
@@ -39,32 +76,32 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 	@Override
 	public Void visitNode(FunNode n) {
 		if (print) printNode(n);
-		Map<String, STentry> hm = symTable.get(nestingLevel);
 		List<TypeNode> parTypes = new ArrayList<>();  
 		for (ParNode par : n.parlist) parTypes.add(par.getType()); 
-		STentry entry = new STentry(nestingLevel, new ArrowTypeNode(parTypes,n.retType), decOffset--);
+		STentry entry = new STentry(nestingLevel, types.arrowType(parTypes,n.retType), decOffset--);
+		n.entry = entry;
 		//inserimento di ID nella symtable
-		if (hm.put(n.id, entry) != null) {
+		if (symTable.put(n.name, entry) != null) {
 			System.out.println("Fun id " + n.id + " at line "+ n.getLine() +" already declared");
 			stErrors++;
 		} 
-		//creare una nuova hashmap per la symTable
+		//aprire un nuovo scope nella symTable
 		nestingLevel++;
-		Map<String, STentry> hmn = new HashMap<>();
-		symTable.add(hmn);
+		symTable.enterScope();
 		int prevNLDecOffset = decOffset; // stores counter for offset of declarations at previous nesting level
 		decOffset = -2;
 		
 		int parOffset = 1;
 		for (ParNode par : n.parlist)
-			if (hmn.put(par.id, new STentry(nestingLevel,par.getType(),parOffset++)) != null) {
+			if (symTable.put(par.name, new STentry(nestingLevel,par.getType(),parOffset++)) != null) {
 				System.out.println("Par id " + par.id + " at line "+ n.getLine() +" already declared");
 				stErrors++;
 			}
 		n.declist.forEach(this::visit);
 		visit(n.exp);
-		//rimuovere la hashmap corrente poiche' esco dallo scope               
-		symTable.remove(nestingLevel--);
+		//ripristinare le dichiarazioni nascoste poiche' esco dallo scope
+		symTable.exitScope();
+		nestingLevel--;
 		decOffset = prevNLDecOffset; // restores counter for offset of declarations at previous nesting level
 		return null;
 	}
@@ -73,11 +110,10 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
     @Override
     public Void visitNode(ProgLetInNode n) {
         if (print) printNode(n);
-        Map<String, STentry> hm = new HashMap<>();
-        symTable.add(hm);
+        symTable.enterScope();
         for (Node dec : n.declist) visit(dec);
         visit(n.exp);
-        symTable.remove(0);
+        symTable.exitScope();
         return null;
     }
 
@@ -92,10 +128,10 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
     public Void visitNode(VarNode n) {
         if (print) printNode(n);
         visit(n.exp);
-        Map<String, STentry> hm = symTable.get(nestingLevel);
         STentry entry = new STentry(nestingLevel, n.getType(), decOffset--);
+        n.entry = entry;
         //inserimento di ID nella symtable
-        if (hm.put(n.id, entry) != null) {
+        if (symTable.put(n.name, entry) != null) {
             System.out.println("Var id " + n.id + " at line " + n.getLine() + " already declared");
             stErrors++;
         }
@@ -169,7 +205,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
     @Override
     public Void visitNode(CallNode n) {
         if (print) printNode(n);
-        STentry entry = stLookup(n.id);
+        STentry entry = stLookup(n.name);
         if (entry == null) {
             System.out.println("Fun id " + n.id + " at line " + n.getLine() + " not declared");
             stErrors++;
@@ -184,7 +220,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
     @Override
     public Void visitNode(IdNode n) {
         if (print) printNode(n);
-        STentry entry = stLookup(n.id);
+        STentry entry = stLookup(n.name);
         if (entry == null) {
             System.out.println("Var or Par id " + n.id + " at line " + n.getLine() + " not declared");
             stErrors++;
@@ -251,19 +287,17 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
     public Void visitNode(MethodNode methodNode) {
         if (print) printNode(methodNode);
 
-        var symbolTable = symTable.get(nestingLevel); //prendo virtual table della classe
         var parameters = new ArrayList<TypeNode>();
         methodNode.parlist.stream().map(ParNode::getType).forEach(parameters::add);
-        var methodType = new MethodTypeNode(new ArrowTypeNode(parameters, methodNode.retType));
+        var methodType = types.methodType(parameters, methodNode.retType);
         methodNode.setType(methodType);
 
         nestingLevel += 1;
-        var hmn = new HashMap<String, STentry>();
-        symTable.add(hmn);
+        symTable.enterScope();
         var previousNestingLevelDecOffset = decOffset;
         int parametersOffset = 1;
         for (var parNode : methodNode.parlist) {
-            if (hmn.put(parNode.id, new STentry(nestingLevel, parNode.getType(), parametersOffset++)) != null) {
+            if (symTable.put(parNode.name, new STentry(nestingLevel, parNode.getType(), parametersOffset++)) != null) {
                 System.out.format("Parameter %s at line %d has already been declared!", parNode.id, parNode.getLine());
                 stErrors++;
             }
@@ -271,7 +305,8 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
         methodNode.declist.forEach(this::visit);
         visit(methodNode.exp);
 
-        symTable.remove(nestingLevel--); //rimuovo hashmap corrente
+        symTable.exitScope(); //chiudo lo scope corrente
+        nestingLevel--;
         decOffset = previousNestingLevelDecOffset;
 
         return null;
@@ -281,7 +316,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
     public Void visitNode(ClassCallNode classCallNode) {
         if (print) printNode(classCallNode);
 
-        var objectEntry = stLookup(classCallNode.objectId);
+        var objectEntry = stLookup(classCallNode.objectName);
         if (objectEntry == null) {
             System.out.format("Object %s at line %d has not been declared!", classCallNode.objectId, classCallNode.getLine());
             stErrors += 1;
@@ -291,8 +326,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
                 System.out.format("Object %s at line %d has not a RefTypeNode!", classCallNode.objectId, classCallNode.getLine());
                 stErrors += 1;
             } else {
-                String classId = ((RefTypeNode) objectEntry.type).id;
-                STentry methodEntry = classTable.get(classId).get(classCallNode.methodId);
+                STentry methodEntry = classTable(((RefTypeNode) objectEntry.type).name).get(classCallNode.methodName);
                 if (methodEntry == null) {
                     System.out.format("Method %s at line %d has not been declared!", classCallNode.methodId, classCallNode.getLine());
                     stErrors += 1;
@@ -318,24 +352,23 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
     public Void visitNode(ClassNode classNode) {
         if (print) printNode(classNode);
 
-        localDeclaration = new HashSet<>(); //per la prima ottimizzazione (Rende possibile rilevare la ridefinizione(erronea) di campi e metodi con stesso nome effettuata all'interno della stessa classe)
-        Map<String, STentry> symbolTable = symTable.get(0);
+        localDeclaration = new BitSet(); //per la prima ottimizzazione (Rende possibile rilevare la ridefinizione(erronea) di campi e metodi con stesso nome effettuata all'interno della stessa classe)
         ClassTypeNode type;
-        Map<String, STentry> virtualTable;
+        VirtualTable virtualTable;
 
         if (classNode.superID != null) { //eredita
-            if (!(classTable.containsKey(classNode.superID))) { // la classe padre non esiste
+            if (classTable(classNode.superName) == null) { // la classe padre non esiste
                 System.out.println("Super class id " + classNode.superID + " at line " + classNode.getLine() + " not declared");
                 stErrors++;
             }
-            classNode.superEntry = symTable.get(0).get(classNode.superID); // uso della super classe
+            classNode.superEntry = symTable.lookupGlobal(classNode.superName); // uso della super classe
             // copio il tipo della classe padre
             ClassTypeNode superType = (ClassTypeNode) classNode.superEntry.type;
             type = new ClassTypeNode(new ArrayList<>(superType.allFields), new ArrayList<>(superType.allMethods));
-            virtualTable = new HashMap<>(classTable.get(classNode.superID));
+            virtualTable = new VirtualTable(classTable(classNode.superName));
         } else { // non eredita
             type = new ClassTypeNode(new ArrayList<>(), new ArrayList<>());
-            virtualTable = new HashMap<>();
+            virtualTable = new VirtualTable();
         }
 
         // creo la STEntry e setto nel nodo il suo tipo
@@ -343,39 +376,44 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
         STentry entry = new STentry(0, type, decOffset--);
 
 
-        if (symbolTable.put(classNode.id, entry) != null) {
+        if (symTable.put(classNode.name, entry) != null) {
             System.out.println("Class id " + classNode.id + " at line " + classNode.getLine() + " already declared");
             stErrors++;
         }
 
         // inserisco la virtual table
-        symTable.add(virtualTable);
-        classTable.put(classNode.id, virtualTable);
+        if (classNode.name >= classTable.length)
+            classTable = Arrays.copyOf(classTable, Math.max(2 * classTable.length, classNode.name + 1));
+        classTable[classNode.name] = virtualTable;
 
-        // livello dentro la dichiarazione della classe
+        // livello dentro la dichiarazione della classe: sono visibili i campi e i metodi ereditati
         nestingLevel++;
+        symTable.enterScope();
+        virtualTable.forEach(symTable);
 
         // campi
         int fieldOffset = -(type.allFields.size()) - 1; //Seconda ottimizzazione (aggiungere campo "offset" a FieldNode)
         for (FieldNode field : classNode.fields) {
-            if (localDeclaration.contains(field.id)) { // controllo dichiarazione multipla
+            if (localDeclaration.get(field.name)) { // controllo dichiarazione multipla
                 System.out.println("Field id " + field.id + " at line " + classNode.getLine() + " already declared in this scope");
                 stErrors++;
             } else {
-                localDeclaration.add(field.id);
-                if (virtualTable.containsKey(field.id)) { // overriding
+                localDeclaration.set(field.name);
+                if (virtualTable.get(field.name) != null) { // overriding
                     // controllo di non fare overriding di un metodo
-                    if (virtualTable.get(field.id).type instanceof MethodTypeNode) { // overriding sbagliato
+                    if (virtualTable.get(field.name).type instanceof MethodTypeNode) { // overriding sbagliato
                         System.out.println("Field id " + field.id + " at line " + classNode.getLine() + " already declared as method id");
                         stErrors++;
                     }
                     // overriding corretto
-                    int oldOffset = virtualTable.get(field.id).offset;
-                    virtualTable.put(field.id, new STentry(nestingLevel, field.getType(), oldOffset));
+                    int oldOffset = virtualTable.get(field.name).offset;
+                    virtualTable.put(field.name, new STentry(nestingLevel, field.getType(), oldOffset));
+                    symTable.put(field.name, virtualTable.get(field.name));
                     field.offset = oldOffset;
                     type.allFields.set(-oldOffset - 1, field.getType());
                 } else { // no overriding
-                    virtualTable.put(field.id, new STentry(nestingLevel, field.getType(), fieldOffset));
+                    virtualTable.put(field.name, new STentry(nestingLevel, field.getType(), fieldOffset));
+                    symTable.put(field.name, virtualTable.get(field.name));
                     field.offset = fieldOffset;
                     fieldOffset--;
                     type.allFields.add(field.getType());
@@ -388,23 +426,25 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 
         // metodi
         for (MethodNode method : classNode.methods) {
-            if (localDeclaration.contains(method.id)) {
+            if (localDeclaration.get(method.name)) {
                 System.out.println("Method id " + classNode.id + " at line " + classNode.getLine() + " already declared in this scope");
                 stErrors++;
             } else {
-                localDeclaration.add(method.id);
+                localDeclaration.set(method.name);
                 visit(method);
-                if (virtualTable.containsKey(method.id)) { //overriding
-                    if (!(virtualTable.get(method.id).type instanceof MethodTypeNode)) {
+                if (virtualTable.get(method.name) != null) { //overriding
+                    if (!(virtualTable.get(method.name).type instanceof MethodTypeNode)) {
                         System.out.println("Method id " + classNode.id + " at line " + classNode.getLine() + " already declared as field id");
                         stErrors++;
                     }
-                    int oldOffset = virtualTable.get(method.id).offset;
-                    virtualTable.put(method.id, new STentry(nestingLevel, method.getType(), oldOffset));
+                    int oldOffset = virtualTable.get(method.name).offset;
+                    virtualTable.put(method.name, new STentry(nestingLevel, method.getType(), oldOffset));
+                    symTable.put(method.name, virtualTable.get(method.name));
                     method.offset = oldOffset;
                     type.allMethods.set(oldOffset, ((MethodTypeNode) method.getType()).fun);
                 } else { // no-overriding
-                    virtualTable.put(method.id, new STentry(nestingLevel, method.getType(), decOffset));
+                    virtualTable.put(method.name, new STentry(nestingLevel, method.getType(), decOffset));
+                    symTable.put(method.name, virtualTable.get(method.name));
                     method.offset = decOffset;
                     decOffset++;
                     type.allMethods.add(((MethodTypeNode) method.getType()).fun);
@@ -412,8 +452,9 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
             }
         }
 
-        //rimuovere la hashmap corrente poiche' esco dallo scope
-        symTable.remove(nestingLevel--);
+        //ripristinare le dichiarazioni nascoste poiche' esco dallo scope
+        symTable.exitScope();
+        nestingLevel--;
         decOffset = prevNLDecOffset; // restores counter for offset of declarations at previous nesting level
         return null;
     }
@@ -425,11 +466,11 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
         if (print) printNode(newNode);
 
         //Checks if ID is in ClassTable (class has to be declared)
-        if (!(classTable.containsKey(newNode.classId))) {
+        if (classTable(newNode.className) == null) {
             System.out.format("Class %s at line %d has not been declared!", newNode.classId, newNode.getLine());
             stErrors += 1;
         } else {
-            var classEntry = symTable.get(0).get(newNode.classId);
+            var classEntry = symTable.lookupGlobal(newNode.className);
             //Class needs to be declared at level 0, otherwise it is invalid
             if (classTable == null) {
                 System.out.format("Class %s at line %d has not been declared at level 0!", newNode.classId, newNode.getLine());
@@ -2,6 +2,7 @@ package compiler;
 
 import compiler.exc.IncomplException;
 import compiler.exc.TypeException;
+import compiler.lib.CompilerOptions;
 import compiler.lib.FOOLlib;
 import compiler.lib.Node;
 import compiler.lib.TypeNode;
@@ -9,19 +10,28 @@ import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.tree.ParseTree;
+import svm.Executable;
 import svm.ExecuteVM;
 import svm.SVMLexer;
 import svm.SVMParser;
+import svm.VMFault;
+import svm.Verifier;
 import compiler.FOOLParser;
 import compiler.FOOLLexer;
 
 import java.io.BufferedWriter;
 import java.io.FileWriter;
+import java.util.List;
 
 public class Test {
     public static void main(String[] args) throws Exception {
    			
+    	// uso: Test [file.fool] [-opzione ...] (vedi CompilerOptions)
     	String fileName = "bankloan.fool";
+    	CompilerOptions options = new CompilerOptions();
+    	for (String arg : args)
+    		if (arg.startsWith("-")) options.set(arg);
+    		else fileName = arg;
 
     	CharStream chars = CharStreams.fromFileName(fileName);
     	FOOLLexer lexer = new FOOLLexer(chars);
@@ -34,12 +44,15 @@ public class Test {
     		parser.getNumberOfSyntaxErrors()+" syntax errors.\n");
 
     	System.out.println("Generating AST.");
-    	ASTGenerationSTVisitor visitor = new ASTGenerationSTVisitor(); // use true to visualize the ST
+    	NamePool names = new NamePool(); // identifiers of this compilation, shared by all phases
+    	TypeFactory types = new TypeFactory(); // types of this compilation, indexed by the identifiers in names
+    	TypeRels rels = new TypeRels();
+    	ASTGenerationSTVisitor visitor = new ASTGenerationSTVisitor(names, types); // use true to visualize the ST
     	Node ast = visitor.visit(st);
     	System.out.println("");
 
     	System.out.println("Enriching AST via symbol table.");
-    	SymbolTableASTVisitor symtableVisitor = new SymbolTableASTVisitor();
+    	SymbolTableASTVisitor symtableVisitor = new SymbolTableASTVisitor(types);
     	symtableVisitor.visit(ast);
     	System.out.println("You had "+symtableVisitor.stErrors+" symbol table errors.\n");
 
@@ -49,8 +62,8 @@ public class Test {
 
     	System.out.println("Checking Types.");
     	try {
-    		TypeCheckEASTVisitor typeCheckVisitor = new TypeCheckEASTVisitor();
-    		TypeNode mainType = typeCheckVisitor.visit(ast);
+    		TypeNode mainType = options.parallelTypeChecking ? new ParallelTypeChecker(types, rels).check(ast)
+    				: new TypeCheckEASTVisitor(types, rels).visit(ast);
     		System.out.print("Type of main program expression is: ");
     		new PrintEASTVisitor().visit(mainType);
     	} catch (IncomplException e) {    		
@@ -65,8 +78,31 @@ public class Test {
 		
 		if ( frontEndErrors > 0) System.exit(1);   
 
+    	if (options.lambdaLifting) {
+    		System.out.println("Lambda lifting nested functions.");
+    		LambdaLiftingASTVisitor lifter = new LambdaLiftingASTVisitor(names, types);
+    		ast = lifter.liftAll(ast);
+    		System.out.println("Lifted "+lifter.liftedCount+" nested functions.\n");
+    	}
+
+    	if (options.devirtualization) {
+    		System.out.println("Devirtualizing method calls.");
+    		DevirtualizationASTVisitor devirtualizer = new DevirtualizationASTVisitor();
+    		devirtualizer.visit(ast);
+    		System.out.println("Devirtualized "+devirtualizer.devirtualized+" of "+devirtualizer.callSites+" method call sites.\n");
+    	}
+
+    	if (options.scalarReplacement) {
+    		System.out.println("Replacing non-escaping objects with local variables.");
+    		ScalarReplacementASTVisitor replacer = new ScalarReplacementASTVisitor(names, types);
+    		ast = replacer.replaceAll(ast);
+    		System.out.println("Replaced "+replacer.replaced+" of "+replacer.allocations+" objects bound to variables.\n");
+    	}
+
     	System.out.println("Generating code.");
-    	String code = new CodeGenerationASTVisitor().visit(ast);
+    	CodeGenerationASTVisitor visitorCG = new CodeGenerationASTVisitor(options);
+    	String code = visitorCG.visit(ast);
+    	if (options.inlining) System.out.println("Inlined "+visitorCG.inlinedCalls()+" trivial method calls.");
     	BufferedWriter out = new BufferedWriter(new FileWriter(fileName+".asm")); 
     	out.write(code);
     	out.close(); 
@@ -83,10 +119,22 @@ public class Test {
     	System.out.println("You had: "+lexerASM.lexicalErrors+" lexical errors and "+parserASM.getNumberOfSyntaxErrors()+" syntax errors.\n");
     	if (lexerASM.lexicalErrors+parserASM.getNumberOfSyntaxErrors()>0) System.exit(1);
 
+    	System.out.println("Verifying assembled code.");
+    	Executable program = new Executable(parserASM);
+    	List<String> verifyErrors = Verifier.verify(program);
+    	verifyErrors.forEach(System.out::println);
+    	System.out.println("You had "+verifyErrors.size()+" verification errors.\n");
+    	if (!verifyErrors.isEmpty()) System.exit(1);
+
     	System.out.println("Running generated code via Stack Virtual Machine.");
-    	ExecuteVM vm = new ExecuteVM(parserASM.code);
+    	ExecuteVM vm = new ExecuteVM(program);
 		/////FINO A QUA TUTTO OKKKKKK
-		vm.cpu();
+		try {
+			vm.cpu();
+		} catch (VMFault fault) {
+			System.out.println("VM fault: "+fault.getMessage());
+			System.out.println(fault.registers());
+		}
 
     }
 }
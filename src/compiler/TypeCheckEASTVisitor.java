@@ -7,7 +7,7 @@ import compiler.lib.BaseEASTVisitor;
 import compiler.lib.Node;
 import compiler.lib.TypeNode;
 
-import static compiler.TypeRels.*;
+import java.util.List;
 
 //visitNode(n) fa il type checking di un Node n e ritorna:
 //- per una espressione, il suo tipo (oggetto BoolTypeNode o IntTypeNode)
@@ -17,14 +17,34 @@ import static compiler.TypeRels.*;
 //visitSTentry(s) ritorna, per una STentry s, il tipo contenuto al suo interno
 public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeException> {
 
-    TypeCheckEASTVisitor() {
-        super(true);
+    private final List<String> diagnostics; // errori raccolti invece che stampati (se non null)
+    private final TypeFactory types; // della compilazione
+    private final TypeRels rels;
+
+    TypeCheckEASTVisitor(TypeFactory types, TypeRels rels) {
+        this(types, rels, null);
     } // enables incomplete tree exceptions
 
-    TypeCheckEASTVisitor(boolean debug) {
+    TypeCheckEASTVisitor(TypeFactory types, TypeRels rels, List<String> diagnostics) {
+        super(true);
+        this.types = types;
+        this.rels = rels;
+        this.diagnostics = diagnostics;
+    } // collects error messages (used by ParallelTypeChecker)
+
+    TypeCheckEASTVisitor(TypeFactory types, TypeRels rels, boolean debug) {
         super(false, debug);
+        this.types = types;
+        this.rels = rels;
+        diagnostics = null;
     } // enables print for debugging
 
+    @Override
+    protected void reportTypeException(TypeException e) {
+        if (diagnostics != null) diagnostics.add(e.text);
+        else super.reportTypeException(e);
+    }
+
     //checks that a type object is visitable (not incomplete)
     private TypeNode ckvisit(TypeNode t) throws TypeException {
         visit(t);
@@ -60,7 +80,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
             } catch (TypeException e) {
                 System.out.println("Type checking error in a declaration: " + e.text);
             }
-        if (!isSubtype(visit(n.exp), ckvisit(n.retType)))
+        if (!rels.isSubtype(visit(n.exp), ckvisit(n.retType)))
             throw new TypeException("Wrong return type for function " + n.id, n.getLine());
         return null;
     }
@@ -68,7 +88,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
     @Override
     public TypeNode visitNode(VarNode n) throws TypeException {
         if (print) printNode(n, n.id);
-        if (!isSubtype(visit(n.exp), ckvisit(n.getType())))
+        if (!rels.isSubtype(visit(n.exp), ckvisit(n.getType())))
             throw new TypeException("Incompatible value for variable " + n.id, n.getLine());
         return null;
     }
@@ -82,7 +102,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
     @Override
     public TypeNode visitNode(IfNode n) throws TypeException {
         if (print) printNode(n);
-        if (!(isSubtype(visit(n.cond), new BoolTypeNode())))
+        if (!(rels.isSubtype(visit(n.cond), types.boolType())))
             throw new TypeException("Non boolean condition in if", n.getLine());
         TypeNode t = visit(n.th);
         TypeNode e = visit(n.el);
@@ -99,54 +119,54 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
         if (print) printNode(n);
         TypeNode l = visit(n.left);
         TypeNode r = visit(n.right);
-        if (!(isSubtype(l, r) || isSubtype(r, l)))
+        if (!(rels.isSubtype(l, r) || rels.isSubtype(r, l)))
             throw new TypeException("Incompatible types in equal", n.getLine());
-        return new BoolTypeNode();
+        return types.boolType();
     }
 
     @Override
     public TypeNode visitNode(TimesNode n) throws TypeException {
         if (print) printNode(n);
-        if (!(isSubtype(visit(n.left), new IntTypeNode())
-                && isSubtype(visit(n.right), new IntTypeNode())))
+        if (!(rels.isSubtype(visit(n.left), types.intType())
+                && rels.isSubtype(visit(n.right), types.intType())))
             throw new TypeException("Non integers in multiplication", n.getLine());
-        return new IntTypeNode();
+        return types.intType();
     }
 
     @Override
     public TypeNode visitNode(PlusNode n) throws TypeException {
         if (print) printNode(n);
-        if (!(isSubtype(visit(n.left), new IntTypeNode())
-                && isSubtype(visit(n.right), new IntTypeNode())))
+        if (!(rels.isSubtype(visit(n.left), types.intType())
+                && rels.isSubtype(visit(n.right), types.intType())))
             throw new TypeException("Non integers in sum", n.getLine());
-        return new IntTypeNode();
+        return types.intType();
     }
 
     @Override
     public TypeNode visitNode(OrNode n) throws TypeException {
         if (print) printNode(n);
-        if (!(isSubtype(visit(n.left), new BoolTypeNode())
-                && isSubtype(visit(n.right), new BoolTypeNode())))
+        if (!(rels.isSubtype(visit(n.left), types.boolType())
+                && rels.isSubtype(visit(n.right), types.boolType())))
             throw new TypeException("Non boolean values in or", n.getLine());
-        return new BoolTypeNode();
+        return types.boolType();
     }
 
     @Override
     public TypeNode visitNode(AndNode n) throws TypeException {
         if (print) printNode(n);
-        if (!(isSubtype(visit(n.left), new BoolTypeNode())
-                && isSubtype(visit(n.right), new BoolTypeNode())))
+        if (!(rels.isSubtype(visit(n.left), types.boolType())
+                && rels.isSubtype(visit(n.right), types.boolType())))
             throw new TypeException("Non boolean values in and", n.getLine());
-        return new BoolTypeNode();
+        return types.boolType();
     }
 
     @Override
     public TypeNode visitNode(DivNode n) throws TypeException {
         if (print) printNode(n);
-        if (!(isSubtype(visit(n.left), new IntTypeNode())
-                && isSubtype(visit(n.right), new IntTypeNode())))
+        if (!(rels.isSubtype(visit(n.left), types.intType())
+                && rels.isSubtype(visit(n.right), types.intType())))
             throw new TypeException("Non integers in div", n.getLine());
-        return new IntTypeNode();
+        return types.intType();
     }
 
     @Override
@@ -168,7 +188,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
         if (!(at.parlist.size() == n.arglist.size()))
             throw new TypeException("Wrong number of parameters in the invocation of " + n.id, n.getLine());
         for (int i = 0; i < n.arglist.size(); i++)
-            if (!(isSubtype(visit(n.arglist.get(i)), at.parlist.get(i))))
+            if (!(rels.isSubtype(visit(n.arglist.get(i)), at.parlist.get(i))))
                 throw new TypeException("Wrong type for " + (i + 1) + "-th parameter in the invocation of " + n.id, n.getLine());
 
         return at.ret;
@@ -192,13 +212,13 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
     @Override
     public TypeNode visitNode(BoolNode n) {
         if (print) printNode(n, n.val.toString());
-        return new BoolTypeNode();
+        return types.boolType();
     }
 
     @Override
     public TypeNode visitNode(IntNode n) {
         if (print) printNode(n, n.val.toString());
-        return new IntTypeNode();
+        return types.intType();
     }
 
 // gestione tipi incompleti	(se lo sono lancia eccezione)
@@ -229,9 +249,9 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
         if (print) printNode(n);
         TypeNode l = visit(n.left);
         TypeNode r = visit(n.right);
-        if (!(isSubtype(l, r) || isSubtype(r, l)))
+        if (!(rels.isSubtype(l, r) || rels.isSubtype(r, l)))
             throw new TypeException("Incompatible types in equal", n.getLine());
-        return new BoolTypeNode();
+        return types.boolType();
     }
 
     @Override
@@ -239,27 +259,27 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
         if (print) printNode(n);
         TypeNode l = visit(n.left);
         TypeNode r = visit(n.right);
-        if (!(isSubtype(l, r) || isSubtype(r, l)))
+        if (!(rels.isSubtype(l, r) || rels.isSubtype(r, l)))
             throw new TypeException("Incompatible types in equal", n.getLine());
-        return new BoolTypeNode();
+        return types.boolType();
     }
 
     @Override
     public TypeNode visitNode(NotNode n) throws TypeException {
         if (print) printNode(n);
         TypeNode arg = visit(n.arg);
-        if (!(isSubtype(visit(n.arg), new BoolTypeNode())))
+        if (!(rels.isSubtype(visit(n.arg), types.boolType())))
             throw new TypeException("Non boolean after NOT", n.getLine());
-        return new BoolTypeNode();
+        return types.boolType();
     }
 
     @Override
     public TypeNode visitNode(MinusNode n) throws TypeException {
         if (print) printNode(n);
-        if (!(isSubtype(visit(n.left), new IntTypeNode())
-                && isSubtype(visit(n.right), new IntTypeNode())))
+        if (!(rels.isSubtype(visit(n.left), types.intType())
+                && rels.isSubtype(visit(n.right), types.intType())))
             throw new TypeException("Non integers in sum", n.getLine());
-        return new IntTypeNode();
+        return types.intType();
     }
 
     // STentry (ritorna campo type)
@@ -285,7 +305,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
             }
         }
 
-        if (!isSubtype(visit(methodNode.exp), ckvisit(methodNode.retType)))
+        if (!rels.isSubtype(visit(methodNode.exp), ckvisit(methodNode.retType)))
             throw new TypeException(String.format("Wrong return type for method %s at line %d", methodNode.id, methodNode.getLine()), methodNode.getLine());
 
         return null;
@@ -295,8 +315,9 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
     public TypeNode visitNode(ClassNode classNode) throws TypeException {
         if (print)
             printNode(classNode, classNode.id + ((classNode.superID == null) ? "" : "extends " + classNode.superID));
+        rels.addClass(types.refType(classNode.id, classNode.name),
+                classNode.superID == null ? null : types.refType(classNode.superID, classNode.superName));
         if (classNode.superID != null) {
-            superType.put(classNode.id, classNode.superID);
             ClassTypeNode type = classNode.type;
             ClassTypeNode parentCT = (ClassTypeNode) classNode.superEntry.type;
 
@@ -305,7 +326,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
             for (var field : classNode.fields) {
                 var offset = -field.offset - 1;
                 if (offset < parentCT.allFields.size()) {
-                    if (!isSubtype(type.allFields.get(offset), parentCT.allFields.get(offset))) {
+                    if (!rels.isSubtype(type.allFields.get(offset), parentCT.allFields.get(offset))) {
                         throw new TypeException(String.format("Wrong overriding type for field %s at line %d", classNode.fields.get(offset).id,
                                 classNode.fields.get(offset).getLine()), classNode.fields.get(offset).getLine());
                     }
@@ -317,7 +338,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
             for (var method : classNode.methods) {
                 var offset = method.offset;
                 if (offset < parentCT.allMethods.size()) {
-                    if (!isSubtype(type.allMethods.get(offset), parentCT.allMethods.get(offset))) {
+                    if (!rels.isSubtype(type.allMethods.get(offset), parentCT.allMethods.get(offset))) {
                         throw new TypeException(String.format("Wrong overriding type for method %s at line %d", classNode.methods.get(offset).id,
                                 classNode.methods.get(offset).getLine()), classNode.methods.get(offset).getLine());
                     }
@@ -345,7 +366,7 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
             if (!(at.parlist.size() == classCallNode.arglist.size()))
                 throw new TypeException("Wrong number of parameters in the invocation of " + classCallNode.methodId, classCallNode.getLine());
             for (int i = 0; i < classCallNode.arglist.size(); i++)
-                if (!(isSubtype(visit(classCallNode.arglist.get(i)), at.parlist.get(i))))
+                if (!(rels.isSubtype(visit(classCallNode.arglist.get(i)), at.parlist.get(i))))
                     throw new TypeException("Wrong type for " + (i + 1) + "-th parameter in the invocation of " + classCallNode.methodId, classCallNode.getLine());
 
         }
@@ -367,19 +388,19 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
             throw new TypeException("Wrong number of parameters for the method call " + newNode.classId, newNode.getLine());
         }
         for (int i = 0; i < newNode.arglist.size(); i++) {
-            if (!(isSubtype(visit(newNode.arglist.get(i)), type.allFields.get(i)))) {
+            if (!(rels.isSubtype(visit(newNode.arglist.get(i)), type.allFields.get(i)))) {
                 throw new TypeException("Wrong type for " + (i + 1) + "-th parameter in the invocation of " + newNode.classId, newNode.getLine());
             }
         }
 
-        return new RefTypeNode(newNode.classId);
+        return types.refType(newNode.classId, newNode.className);
     }
 
     @Override
     public TypeNode visitNode(EmptyNode emptyNode) {
         if (print) printNode(emptyNode);
 
-        return new EmptyTypeNode();
+        return types.emptyType();
     }
 
     @Override
@@ -399,14 +420,14 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
     }
 
 
-    public static TypeNode lowestCommonAncestor(TypeNode a, TypeNode b) {
+    public TypeNode lowestCommonAncestor(TypeNode a, TypeNode b) {
 
-        if (isSubtype(a, new IntTypeNode()) && isSubtype(b, new IntTypeNode())) {
+        if (rels.isSubtype(a, types.intType()) && rels.isSubtype(b, types.intType())) {
             //torna int se uno dei due int, altrimenti bool
             if (a instanceof IntTypeNode || b instanceof IntTypeNode) {
-                return new IntTypeNode();
+                return types.intType();
             } else {
-                return new BoolTypeNode();
+                return types.boolType();
             }
         }
 
@@ -417,28 +438,25 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode, TypeExceptio
             if (a instanceof EmptyTypeNode) return b;
             if (b instanceof EmptyTypeNode) return a;
 
-            String superClassId = "";
-            String classA = ((RefTypeNode) a).id;
-            String classB = ((RefTypeNode) b).id;
+            RefTypeNode superClass;
+            RefTypeNode classA = (RefTypeNode) a;
+            int classB = ((RefTypeNode) b).name;
 
-            if (classA.equals(classB)) return a;
+            if (classA.name == classB) return a;
 
             /*
             all'inizio considera la classe di "a" e risale, poi, le sue superclassi
             (tramite la funzione "superType") controllando, ogni volta, se "b"
-            sia sottotipo (metodo "isSubtype") della classe considerata:
+            sia sottotipo (metodo "isSubclass") della classe considerata:
             • torna un RefTypeNode a tale classe qualora il controllo abbia, prima o poi, successo, null altrimenti
              */
-            do {
-                superClassId = superType.get(classA);
-                RefTypeNode superClass = new RefTypeNode(superClassId);
-                if (isSubtype(b, superClass)) {
+            for (superClass = classA; superClass != null; superClass = rels.superType(superClass)) {
+                if (rels.isSubclass(classB, superClass.name)) {
                     return superClass;
                 }
-                classA = superClassId;
-            } while (superClassId != null);
+            }
         }
 
         return null;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
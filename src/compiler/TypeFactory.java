@@ -0,0 +1,67 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.TypeNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// costruzione dei tipi con hash-consing: tipi strutturalmente uguali sono la stessa istanza,
+// quindi possono essere confrontati per identita' (i tipi sono immutabili e condivisi tra i nodi).
+// Un'istanza per compilazione, creata insieme al NamePool i cui identificatori indicizzano i RefTypeNode
+public class TypeFactory {
+
+	// tipi senza nomi: condivisi anche tra compilazioni diverse
+	private static final IntTypeNode INT = new IntTypeNode();
+	private static final BoolTypeNode BOOL = new BoolTypeNode();
+	private static final EmptyTypeNode EMPTY = new EmptyTypeNode();
+
+	private RefTypeNode[] refTypes = new RefTypeNode[16]; // per nome della classe
+	// chiave: tipo di ritorno seguito dai tipi dei parametri, gia' unici (confronto per identita')
+	private final Map<List<TypeNode>, ArrowTypeNode> arrowTypes = new ConcurrentHashMap<>();
+	private final Map<ArrowTypeNode, MethodTypeNode> methodTypes = new ConcurrentHashMap<>();
+
+	public IntTypeNode intType() {
+		return INT;
+	}
+
+	public BoolTypeNode boolType() {
+		return BOOL;
+	}
+
+	public EmptyTypeNode emptyType() {
+		return EMPTY;
+	}
+
+	// sincronizzato: vi accede anche il type checking parallelo
+	public synchronized RefTypeNode refType(String id, int name) {
+		if (name >= refTypes.length) refTypes = Arrays.copyOf(refTypes, Math.max(2 * refTypes.length, name + 1));
+		if (refTypes[name] == null) refTypes[name] = new RefTypeNode(id, name);
+		return refTypes[name];
+	}
+
+	public ArrowTypeNode arrowType(List<TypeNode> parTypes, TypeNode ret) {
+		List<TypeNode> key = new ArrayList<>(parTypes.size() + 1);
+		key.add(intern(ret));
+		for (TypeNode par : parTypes) key.add(intern(par));
+		return arrowTypes.computeIfAbsent(key, k -> new ArrowTypeNode(k.subList(1, k.size()), k.get(0)));
+	}
+
+	public MethodTypeNode methodType(List<TypeNode> parTypes, TypeNode ret) {
+		return methodTypes.computeIfAbsent(arrowType(parTypes, ret), MethodTypeNode::new);
+	}
+
+	// istanza unica di un tipo costruito altrove (i ClassTypeNode non sono condivisi)
+	public TypeNode intern(TypeNode t) {
+		if (t instanceof IntTypeNode) return INT;
+		if (t instanceof BoolTypeNode) return BOOL;
+		if (t instanceof EmptyTypeNode) return EMPTY;
+		if (t instanceof RefTypeNode) return refType(((RefTypeNode) t).id, ((RefTypeNode) t).name);
+		if (t instanceof ArrowTypeNode) return arrowType(((ArrowTypeNode) t).parlist, ((ArrowTypeNode) t).ret);
+		if (t instanceof MethodTypeNode) return methodType(((MethodTypeNode) t).fun.parlist, ((MethodTypeNode) t).fun.ret);
+		return t;
+	}
+}
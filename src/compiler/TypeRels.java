@@ -3,15 +3,55 @@ package compiler;
 import compiler.AST.*;
 import compiler.lib.TypeNode;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+// relazioni di sottotipo tra i tipi di una compilazione (un'istanza per compilazione, come il NamePool
+// e la TypeFactory da cui provengono nomi e tipi)
 public class TypeRels {
 
-    protected static final Map<String, String> superType = new HashMap<>();//mappa nome classe sulla sua super()
+    // entrambe indicizzate dal nome della classe (identificatore assegnato da NamePool)
+    private RefTypeNode[] superTypes = new RefTypeNode[16];//super() di ogni classe, null se non eredita
+    // riga i: classi di cui la classe i e' sottotipo (chiusura riflessiva e transitiva di superTypes)
+    private BitSet[] subtypeMatrix = new BitSet[16];
+    // risultati di isSubtype su coppie di tipi funzionali, confrontati per identita'
+    // (i tipi non ridefiniscono equals: le mappe concorrenti, usate dal type checking parallelo, confrontano le istanze)
+    private final Map<ArrowTypeNode, Map<ArrowTypeNode, Boolean>> arrowMemo = new ConcurrentHashMap<>();
+
+    // registra una classe (superType e' null per le classi senza super): la sua riga della matrice
+    // e' quella della superclasse, gia' registrata perche' dichiarata prima, piu' la classe stessa
+    public void addClass(RefTypeNode type, RefTypeNode superType) {
+        int name = type.name;
+        if (name < subtypeMatrix.length && subtypeMatrix[name] != null) return; // gia' registrata (ParallelTypeChecker registra tutte le classi prima)
+        if (name >= subtypeMatrix.length) {
+            int length = Math.max(2 * subtypeMatrix.length, name + 1);
+            subtypeMatrix = Arrays.copyOf(subtypeMatrix, length);
+            superTypes = Arrays.copyOf(superTypes, length);
+        }
+        BitSet superRow = superType == null || superType.name >= subtypeMatrix.length ? null : subtypeMatrix[superType.name];
+        BitSet row = superRow == null ? new BitSet() : (BitSet) superRow.clone();
+        row.set(name);
+        superTypes[name] = superType;
+        subtypeMatrix[name] = row;
+        arrowMemo.clear(); // i risultati memorizzati potevano riguardare la classe non ancora registrata
+    }
+
+    // super() della classe, null se non eredita o non e' registrata
+    public RefTypeNode superType(RefTypeNode type) {
+        return type.name < superTypes.length ? superTypes[type.name] : null;
+    }
+
+    // valuta se la classe di nome "a" e' sottoclasse (diretta o indiretta) della classe di nome "b", o coincide con essa
+    public boolean isSubclass(int a, int b) {
+        if (a == b) return true;
+        return a < subtypeMatrix.length && subtypeMatrix[a] != null && subtypeMatrix[a].get(b);
+    }
 
     // valuta se il tipo "a" e' <= al tipo "b", dove "a" e "b" sono tipi di base: IntTypeNode o BoolTypeNode
-    public static boolean isSubtype(TypeNode a, TypeNode b) {
+    public boolean isSubtype(TypeNode a, TypeNode b) {
+
+        // i tipi sono costruiti da TypeFactory: tipi uguali sono la stessa istanza
+        if (a == b) return !(a instanceof EmptyTypeNode || a instanceof ClassTypeNode || a instanceof MethodTypeNode);
 
         if (((a instanceof BoolTypeNode) && (b instanceof IntTypeNode))
                 || ((a instanceof BoolTypeNode) && (b instanceof BoolTypeNode))
@@ -23,33 +63,39 @@ public class TypeRels {
 
         // OBEJECT-ORIENTATION EXTENSION
         if (a instanceof RefTypeNode && b instanceof RefTypeNode) {
-            String idA = ((RefTypeNode) a).id;
-            String idB = ((RefTypeNode) b).id;
-            //If necessario per dichiarazione di variabili del tipo A var = new A(); se no andavamo in superType e non trovavamo nulla
-            if (idA.equals(idB)) return true;
-            return ((superType.get(idA) != null) && (superType.get(idA).equals(idB))); //check if superType exists
+            return isSubclass(((RefTypeNode) a).name, ((RefTypeNode) b).name);
         }
 
         if (a instanceof ArrowTypeNode && b instanceof ArrowTypeNode) {
             ArrowTypeNode funA = (ArrowTypeNode) a;
             ArrowTypeNode funB = (ArrowTypeNode) b;
-            if (isSubtype(funA.ret, funB.ret)) { //co-varianza
-                //contro-varianza
-                if (funA.parlist.size() == funB.parlist.size()) {
-                    for (int i = 0; i < funA.parlist.size(); i++) {
-                        if (!(isSubtype(funB.parlist.get(i), funA.parlist.get(i)))) {
-                            return false;
-                        }
+            Map<ArrowTypeNode, Boolean> memo = arrowMemo.computeIfAbsent(funA, k -> new ConcurrentHashMap<>());
+            Boolean known = memo.get(funB);
+            if (known == null) {
+                known = isArrowSubtype(funA, funB);
+                memo.put(funB, known);
+            }
+            return known;
+        }
+        return false;
+    }
+
+    private boolean isArrowSubtype(ArrowTypeNode funA, ArrowTypeNode funB) {
+        if (isSubtype(funA.ret, funB.ret)) { //co-varianza
+            //contro-varianza
+            if (funA.parlist.size() == funB.parlist.size()) {
+                for (int i = 0; i < funA.parlist.size(); i++) {
+                    if (!(isSubtype(funB.parlist.get(i), funA.parlist.get(i)))) {
+                        return false;
                     }
-                    return true;
-                } else {
-                    return false;
                 }
+                return true;
             } else {
                 return false;
             }
+        } else {
+            return false;
         }
-        return false;
     }
 
 }
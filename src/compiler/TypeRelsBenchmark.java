@@ -0,0 +1,94 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.CompilerOptions;
+import compiler.lib.Node;
+import org.antlr.v4.runtime.CharStreams;
+
+import java.util.Random;
+
+// type checking di un programma generato con molte classi organizzate in gerarchie profonde,
+// e confronto tra la matrice dei sottotipi e la risalita della catena delle superclassi
+// (uso: TypeRelsBenchmark [classi] [profondita'], di default 500 classi in gerarchie di profondita' 50)
+public class TypeRelsBenchmark {
+
+	private static final int WARMUP = 5;
+	private static final int RUNS = 20;
+	private static final int QUERIES = 2_000_000;
+
+	// classi C0..Cn-1: ogni gerarchia e' una catena di "depth" classi, ciascuna sottoclasse della precedente
+	private static String generate(int classes, int depth) {
+		StringBuilder prog = new StringBuilder("let\n");
+		for (int i = 0; i < classes; i++) {
+			prog.append("  class C").append(i);
+			if (i % depth != 0) prog.append(" extends C").append(i - 1);
+			prog.append(" () { fun m").append(i).append(":int () ").append(i).append("; }\n");
+		}
+		for (int i = 0; i < classes; i++) {
+			int root = i - i % depth;
+			prog.append("  var v").append(i).append(":C").append(root)
+					.append(" = new C").append(i).append("();\n");
+			prog.append("  var w").append(i).append(":C").append(root)
+					.append(" = if (true) then {new C").append(i).append("()} else {new C")
+					.append(root + (i + 7) % depth).append("()};\n");
+		}
+		int last = classes - 1;
+		return prog.append("in print(v").append(last).append(".m").append(last - last % depth).append("());\n").toString();
+	}
+
+	// sottotipo risalendo la catena delle superclassi
+	private static boolean walkSubclass(TypeRels rels, RefTypeNode a, RefTypeNode b) {
+		for (RefTypeNode c = a; c != null; c = rels.superType(c))
+			if (c == b) return true;
+		return false;
+	}
+
+	public static void main(String[] args) {
+		int classes = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+		int depth = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+		String prog = generate(classes, depth);
+
+		long elapsed = 0;
+		Node ast = null;
+		TypeFactory types = null;
+		TypeRels rels = null;
+		for (int i = 0; i < WARMUP + RUNS; i++) {
+			long start = System.nanoTime();
+			types = new TypeFactory();
+			rels = new TypeRels();
+			ast = FOOLCompiler.frontEnd(CharStreams.fromString(prog), new CompilerOptions(), new NamePool(), types, rels);
+			if (ast == null) {
+				System.out.println("Errors compiling the generated program");
+				System.exit(1);
+			}
+			if (i >= WARMUP) elapsed += System.nanoTime() - start;
+		}
+		System.out.println(classes + " classes, depth " + depth + ": "
+				+ String.format("%.3f", elapsed / 1e6 / RUNS) + " ms per front end run");
+
+		// relazioni e tipi delle classi C0..Cn-1 (nell'ordine di dichiarazione) dell'ultima compilazione
+		RefTypeNode[] ids = new RefTypeNode[classes];
+		int n = 0;
+		for (Node dec : ((ProgLetInNode) ast).declist)
+			if (dec instanceof ClassNode) ids[n++] = types.refType(((ClassNode) dec).id, ((ClassNode) dec).name);
+		Random random = new Random(42);
+		int[] pairs = new int[2 * 4096];
+		for (int i = 0; i < pairs.length; i++) pairs[i] = random.nextInt(classes);
+		for (int i = 0; i < pairs.length; i += 2)
+			if (rels.isSubclass(ids[pairs[i]].name, ids[pairs[i + 1]].name) != walkSubclass(rels, ids[pairs[i]], ids[pairs[i + 1]]))
+				throw new AssertionError("C" + pairs[i] + " <= C" + pairs[i + 1]);
+
+		for (boolean matrix : new boolean[]{false, true}) {
+			int hits = 0;
+			long start = System.nanoTime();
+			for (int q = 0; q < QUERIES; q++) {
+				int i = (q % 4096) * 2;
+				if (matrix ? rels.isSubclass(ids[pairs[i]].name, ids[pairs[i + 1]].name)
+						: walkSubclass(rels, ids[pairs[i]], ids[pairs[i + 1]])) hits++;
+			}
+			long time = System.nanoTime() - start;
+			System.out.println((matrix ? "subtype matrix: " : "superclass walk: ")
+					+ String.format("%.1f", (double) time / QUERIES) + " ns per query (" + hits + " subtypes)");
+		}
+	}
+}
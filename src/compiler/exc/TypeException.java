@@ -9,7 +9,9 @@ public class TypeException extends Exception {
 	public String text;
 
 	public TypeException(String t, int line) {
-		FOOLlib.typeErrors++;
+		synchronized (FOOLlib.class) { // anche dai task di ParallelTypeChecker
+			FOOLlib.typeErrors++;
+		}
 		text = t + " at line "+ line;
 	}
 
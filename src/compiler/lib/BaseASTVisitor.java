@@ -57,11 +57,15 @@ public class BaseASTVisitor<S, E extends Exception> {
         try {
             return v.accept(this);
         } catch (TypeException e) {
-            e.printStackTrace();
+            reportTypeException(e);
         }
         return null;
     }
 
+    protected void reportTypeException(TypeException e) {
+        e.printStackTrace();
+    }
+
     public S visitNode(ProgLetInNode n) throws E {
         throw new UnimplException();
     }
@@ -174,4 +178,4 @@ public class BaseASTVisitor<S, E extends Exception> {
 	public S visitNode(RefTypeNode n) throws E {throw new UnimplException();}
 	public S visitNode(EmptyTypeNode n) throws E {throw new UnimplException();}
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package compiler.lib;
+
+public class CompilerOptions {
+
+	// accesso alle variabili non locali tramite display (un registro per livello di annidamento)
+	// invece di risalire la catena degli Access Link
+	public boolean display = false;
+
+	// porta al livello globale le funzioni annidate che catturano poche variabili
+	public boolean lambdaLifting = false;
+
+	// chiamate dirette ai metodi non ridefiniti in nessuna sottoclasse
+	public boolean devirtualization = false;
+
+	// sostituisce le chiamate devirtualizzate a metodi banali (campo o costante) con il loro corpo
+	public boolean inlining = false;
+
+	// sostituisce con variabili locali gli oggetti che non sfuggono alla funzione che li crea
+	public boolean scalarReplacement = false;
+
+	// type checking delle dichiarazioni globali in parallelo
+	public boolean parallelTypeChecking = false;
+
+	// generazione del codice delle funzioni in parallelo (il codice prodotto e' lo stesso)
+	public boolean parallelCodeGeneration = false;
+
+	// abilita l'opzione corrispondente al flag da linea di comando (es. "-display")
+	public void set(String flag) {
+		switch (flag) {
+			case "-display":
+				display = true;
+				break;
+			case "-lift":
+				lambdaLifting = true;
+				break;
+			case "-devirt":
+				devirtualization = true;
+				break;
+			case "-inline": // richiede la devirtualizzazione
+				inlining = true;
+				devirtualization = true;
+				break;
+			case "-sra": // richiede la devirtualizzazione
+				scalarReplacement = true;
+				devirtualization = true;
+				break;
+			case "-ptc":
+				parallelTypeChecking = true;
+				break;
+			case "-pcg":
+				parallelCodeGeneration = true;
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown compiler option " + flag);
+		}
+	}
+}
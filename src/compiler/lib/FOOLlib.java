@@ -25,25 +25,8 @@ public class FOOLlib {
 		return code;
 	}
 
-	private static int labCount = 0;
-
-	public static String freshLabel() {
-		return "label"+(labCount++);
-	}
-
-	private static int funlabCount = 0;
-
-	public static String freshFunLabel() {
-		return "function"+(funlabCount++);
-	}
-
-	private static String funCode = null;
-
-	public static void putCode(String c) {
-		funCode = nlJoin(funCode, "", c); //linea vuota di separazione prima di codice funzione
-	}
-
-	public static String getCode() {
-		return funCode;
+	// azzera lo stato globale, per compilare piu' programmi nella stessa esecuzione
+	public static void reset() {
+		typeErrors = 0;
 	}
 }
@@ -3,11 +3,16 @@ package compiler.lib;
 public abstract class Node implements Visitable {
 	
 	int line=-1;  // line -1 means unset
+	int column=-1; // posizione nella riga (da 0, come nei messaggi di ANTLR)
 	
 	public void setLine(int l) { line=l; }
 
 	public int getLine() { return line; }
 
+	public void setColumn(int c) { column=c; }
+
+	public int getColumn() { return column; }
+
 }
 
 	  
\ No newline at end of file
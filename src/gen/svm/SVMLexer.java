@@ -1,4 +1,4 @@
-// Generated from C:/Users/rikys/Desktop/LCMC-Project-A.A-21-22/src/svm\SVM.g4 by ANTLR 4.9.2
+// Generated from SVM.g4 by ANTLR 4.9.3
 package svm;
 import org.antlr.v4.runtime.Lexer;
 import org.antlr.v4.runtime.CharStream;
@@ -11,7 +11,7 @@ import org.antlr.v4.runtime.misc.*;
 
 @SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast"})
 public class SVMLexer extends Lexer {
-	static { RuntimeMetaData.checkVersion("4.9.2", RuntimeMetaData.VERSION); }
+	static { RuntimeMetaData.checkVersion("4.9.3", RuntimeMetaData.VERSION); }
 
 	protected static final DFA[] _decisionToDFA;
 	protected static final PredictionContextCache _sharedContextCache =
@@ -19,8 +19,10 @@ public class SVMLexer extends Lexer {
 	public static final int
 		PUSH=1, POP=2, ADD=3, SUB=4, MULT=5, DIV=6, STOREW=7, LOADW=8, BRANCH=9, 
 		BRANCHEQ=10, BRANCHLESSEQ=11, JS=12, LOADRA=13, STORERA=14, LOADTM=15, 
-		STORETM=16, LOADFP=17, STOREFP=18, COPYFP=19, LOADHP=20, STOREHP=21, PRINT=22, 
-		HALT=23, COL=24, LABEL=25, INTEGER=26, WHITESP=27, ERR=28;
+		STORETM=16, LOADFP=17, STOREFP=18, COPYFP=19, LOADHP=20, STOREHP=21, LOADDISPLAY=22, 
+		STOREDISPLAY=23, RESTOREDISPLAY=24, PRINT=25, HALT=26, DATA=27, NEW=28, 
+		LINE=29, NAME=30, CLASS=31, COL=32, LABEL=33, INTEGER=34, STRING=35, WHITESP=36, 
+		ERR=37;
 	public static String[] channelNames = {
 		"DEFAULT_TOKEN_CHANNEL", "HIDDEN"
 	};
@@ -33,8 +35,9 @@ public class SVMLexer extends Lexer {
 		return new String[] {
 			"PUSH", "POP", "ADD", "SUB", "MULT", "DIV", "STOREW", "LOADW", "BRANCH", 
 			"BRANCHEQ", "BRANCHLESSEQ", "JS", "LOADRA", "STORERA", "LOADTM", "STORETM", 
-			"LOADFP", "STOREFP", "COPYFP", "LOADHP", "STOREHP", "PRINT", "HALT", 
-			"COL", "LABEL", "INTEGER", "WHITESP", "ERR"
+			"LOADFP", "STOREFP", "COPYFP", "LOADHP", "STOREHP", "LOADDISPLAY", "STOREDISPLAY", 
+			"RESTOREDISPLAY", "PRINT", "HALT", "DATA", "NEW", "LINE", "NAME", "CLASS", 
+			"COL", "LABEL", "INTEGER", "STRING", "WHITESP", "ERR"
 		};
 	}
 	public static final String[] ruleNames = makeRuleNames();
@@ -43,8 +46,9 @@ public class SVMLexer extends Lexer {
 		return new String[] {
 			null, "'push'", "'pop'", "'add'", "'sub'", "'mult'", "'div'", "'sw'", 
 			"'lw'", "'b'", "'beq'", "'bleq'", "'js'", "'lra'", "'sra'", "'ltm'", 
-			"'stm'", "'lfp'", "'sfp'", "'cfp'", "'lhp'", "'shp'", "'print'", "'halt'", 
-			"':'"
+			"'stm'", "'lfp'", "'sfp'", "'cfp'", "'lhp'", "'shp'", "'ldisp'", "'sdisp'", 
+			"'rdisp'", "'print'", "'halt'", "'data'", "'new'", "'line'", "'name'", 
+			"'class'", "':'"
 		};
 	}
 	private static final String[] _LITERAL_NAMES = makeLiteralNames();
@@ -52,8 +56,9 @@ public class SVMLexer extends Lexer {
 		return new String[] {
 			null, "PUSH", "POP", "ADD", "SUB", "MULT", "DIV", "STOREW", "LOADW", 
 			"BRANCH", "BRANCHEQ", "BRANCHLESSEQ", "JS", "LOADRA", "STORERA", "LOADTM", 
-			"STORETM", "LOADFP", "STOREFP", "COPYFP", "LOADHP", "STOREHP", "PRINT", 
-			"HALT", "COL", "LABEL", "INTEGER", "WHITESP", "ERR"
+			"STORETM", "LOADFP", "STOREFP", "COPYFP", "LOADHP", "STOREHP", "LOADDISPLAY", 
+			"STOREDISPLAY", "RESTOREDISPLAY", "PRINT", "HALT", "DATA", "NEW", "LINE", 
+			"NAME", "CLASS", "COL", "LABEL", "INTEGER", "STRING", "WHITESP", "ERR"
 		};
 	}
 	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
@@ -120,7 +125,7 @@ public class SVMLexer extends Lexer {
 	@Override
 	public void action(RuleContext _localctx, int ruleIndex, int actionIndex) {
 		switch (ruleIndex) {
-		case 27:
+		case 36:
 			ERR_action((RuleContext)_localctx, actionIndex);
 			break;
 		}
@@ -134,61 +139,84 @@ public class SVMLexer extends Lexer {
 	}
 
 	public static final String _serializedATN =
-		"\3\u608b\ua72a\u8133\ub9ed\u417c\u3be7\u7786\u5964\2\36\u00ba\b\1\4\2"+
-		"\t\2\4\3\t\3\4\4\t\4\4\5\t\5\4\6\t\6\4\7\t\7\4\b\t\b\4\t\t\t\4\n\t\n\4"+
-		"\13\t\13\4\f\t\f\4\r\t\r\4\16\t\16\4\17\t\17\4\20\t\20\4\21\t\21\4\22"+
-		"\t\22\4\23\t\23\4\24\t\24\4\25\t\25\4\26\t\26\4\27\t\27\4\30\t\30\4\31"+
-		"\t\31\4\32\t\32\4\33\t\33\4\34\t\34\4\35\t\35\3\2\3\2\3\2\3\2\3\2\3\3"+
-		"\3\3\3\3\3\3\3\4\3\4\3\4\3\4\3\5\3\5\3\5\3\5\3\6\3\6\3\6\3\6\3\6\3\7\3"+
-		"\7\3\7\3\7\3\b\3\b\3\b\3\t\3\t\3\t\3\n\3\n\3\13\3\13\3\13\3\13\3\f\3\f"+
-		"\3\f\3\f\3\f\3\r\3\r\3\r\3\16\3\16\3\16\3\16\3\17\3\17\3\17\3\17\3\20"+
-		"\3\20\3\20\3\20\3\21\3\21\3\21\3\21\3\22\3\22\3\22\3\22\3\23\3\23\3\23"+
-		"\3\23\3\24\3\24\3\24\3\24\3\25\3\25\3\25\3\25\3\26\3\26\3\26\3\26\3\27"+
-		"\3\27\3\27\3\27\3\27\3\27\3\30\3\30\3\30\3\30\3\30\3\31\3\31\3\32\3\32"+
-		"\7\32\u009d\n\32\f\32\16\32\u00a0\13\32\3\33\3\33\5\33\u00a4\n\33\3\33"+
-		"\3\33\7\33\u00a8\n\33\f\33\16\33\u00ab\13\33\5\33\u00ad\n\33\3\34\6\34"+
-		"\u00b0\n\34\r\34\16\34\u00b1\3\34\3\34\3\35\3\35\3\35\3\35\3\35\2\2\36"+
-		"\3\3\5\4\7\5\t\6\13\7\r\b\17\t\21\n\23\13\25\f\27\r\31\16\33\17\35\20"+
-		"\37\21!\22#\23%\24\'\25)\26+\27-\30/\31\61\32\63\33\65\34\67\359\36\3"+
-		"\2\5\4\2C\\c|\5\2\62;C\\c|\5\2\13\f\17\17\"\"\2\u00be\2\3\3\2\2\2\2\5"+
-		"\3\2\2\2\2\7\3\2\2\2\2\t\3\2\2\2\2\13\3\2\2\2\2\r\3\2\2\2\2\17\3\2\2\2"+
-		"\2\21\3\2\2\2\2\23\3\2\2\2\2\25\3\2\2\2\2\27\3\2\2\2\2\31\3\2\2\2\2\33"+
-		"\3\2\2\2\2\35\3\2\2\2\2\37\3\2\2\2\2!\3\2\2\2\2#\3\2\2\2\2%\3\2\2\2\2"+
-		"\'\3\2\2\2\2)\3\2\2\2\2+\3\2\2\2\2-\3\2\2\2\2/\3\2\2\2\2\61\3\2\2\2\2"+
-		"\63\3\2\2\2\2\65\3\2\2\2\2\67\3\2\2\2\29\3\2\2\2\3;\3\2\2\2\5@\3\2\2\2"+
-		"\7D\3\2\2\2\tH\3\2\2\2\13L\3\2\2\2\rQ\3\2\2\2\17U\3\2\2\2\21X\3\2\2\2"+
-		"\23[\3\2\2\2\25]\3\2\2\2\27a\3\2\2\2\31f\3\2\2\2\33i\3\2\2\2\35m\3\2\2"+
-		"\2\37q\3\2\2\2!u\3\2\2\2#y\3\2\2\2%}\3\2\2\2\'\u0081\3\2\2\2)\u0085\3"+
-		"\2\2\2+\u0089\3\2\2\2-\u008d\3\2\2\2/\u0093\3\2\2\2\61\u0098\3\2\2\2\63"+
-		"\u009a\3\2\2\2\65\u00ac\3\2\2\2\67\u00af\3\2\2\29\u00b5\3\2\2\2;<\7r\2"+
-		"\2<=\7w\2\2=>\7u\2\2>?\7j\2\2?\4\3\2\2\2@A\7r\2\2AB\7q\2\2BC\7r\2\2C\6"+
-		"\3\2\2\2DE\7c\2\2EF\7f\2\2FG\7f\2\2G\b\3\2\2\2HI\7u\2\2IJ\7w\2\2JK\7d"+
-		"\2\2K\n\3\2\2\2LM\7o\2\2MN\7w\2\2NO\7n\2\2OP\7v\2\2P\f\3\2\2\2QR\7f\2"+
-		"\2RS\7k\2\2ST\7x\2\2T\16\3\2\2\2UV\7u\2\2VW\7y\2\2W\20\3\2\2\2XY\7n\2"+
-		"\2YZ\7y\2\2Z\22\3\2\2\2[\\\7d\2\2\\\24\3\2\2\2]^\7d\2\2^_\7g\2\2_`\7s"+
-		"\2\2`\26\3\2\2\2ab\7d\2\2bc\7n\2\2cd\7g\2\2de\7s\2\2e\30\3\2\2\2fg\7l"+
-		"\2\2gh\7u\2\2h\32\3\2\2\2ij\7n\2\2jk\7t\2\2kl\7c\2\2l\34\3\2\2\2mn\7u"+
-		"\2\2no\7t\2\2op\7c\2\2p\36\3\2\2\2qr\7n\2\2rs\7v\2\2st\7o\2\2t \3\2\2"+
-		"\2uv\7u\2\2vw\7v\2\2wx\7o\2\2x\"\3\2\2\2yz\7n\2\2z{\7h\2\2{|\7r\2\2|$"+
-		"\3\2\2\2}~\7u\2\2~\177\7h\2\2\177\u0080\7r\2\2\u0080&\3\2\2\2\u0081\u0082"+
-		"\7e\2\2\u0082\u0083\7h\2\2\u0083\u0084\7r\2\2\u0084(\3\2\2\2\u0085\u0086"+
-		"\7n\2\2\u0086\u0087\7j\2\2\u0087\u0088\7r\2\2\u0088*\3\2\2\2\u0089\u008a"+
-		"\7u\2\2\u008a\u008b\7j\2\2\u008b\u008c\7r\2\2\u008c,\3\2\2\2\u008d\u008e"+
-		"\7r\2\2\u008e\u008f\7t\2\2\u008f\u0090\7k\2\2\u0090\u0091\7p\2\2\u0091"+
-		"\u0092\7v\2\2\u0092.\3\2\2\2\u0093\u0094\7j\2\2\u0094\u0095\7c\2\2\u0095"+
-		"\u0096\7n\2\2\u0096\u0097\7v\2\2\u0097\60\3\2\2\2\u0098\u0099\7<\2\2\u0099"+
-		"\62\3\2\2\2\u009a\u009e\t\2\2\2\u009b\u009d\t\3\2\2\u009c\u009b\3\2\2"+
-		"\2\u009d\u00a0\3\2\2\2\u009e\u009c\3\2\2\2\u009e\u009f\3\2\2\2\u009f\64"+
-		"\3\2\2\2\u00a0\u009e\3\2\2\2\u00a1\u00ad\7\62\2\2\u00a2\u00a4\7/\2\2\u00a3"+
-		"\u00a2\3\2\2\2\u00a3\u00a4\3\2\2\2\u00a4\u00a5\3\2\2\2\u00a5\u00a9\4\63"+
-		";\2\u00a6\u00a8\4\62;\2\u00a7\u00a6\3\2\2\2\u00a8\u00ab\3\2\2\2\u00a9"+
-		"\u00a7\3\2\2\2\u00a9\u00aa\3\2\2\2\u00aa\u00ad\3\2\2\2\u00ab\u00a9\3\2"+
-		"\2\2\u00ac\u00a1\3\2\2\2\u00ac\u00a3\3\2\2\2\u00ad\66\3\2\2\2\u00ae\u00b0"+
-		"\t\4\2\2\u00af\u00ae\3\2\2\2\u00b0\u00b1\3\2\2\2\u00b1\u00af\3\2\2\2\u00b1"+
-		"\u00b2\3\2\2\2\u00b2\u00b3\3\2\2\2\u00b3\u00b4\b\34\2\2\u00b48\3\2\2\2"+
-		"\u00b5\u00b6\13\2\2\2\u00b6\u00b7\b\35\3\2\u00b7\u00b8\3\2\2\2\u00b8\u00b9"+
-		"\b\35\2\2\u00b9:\3\2\2\2\b\2\u009e\u00a3\u00a9\u00ac\u00b1\4\2\3\2\3\35"+
-		"\2";
+		"\3\u608b\ua72a\u8133\ub9ed\u417c\u3be7\u7786\u5964\2\'\u0100\b\1\4\2\t"+
+		"\2\4\3\t\3\4\4\t\4\4\5\t\5\4\6\t\6\4\7\t\7\4\b\t\b\4\t\t\t\4\n\t\n\4\13"+
+		"\t\13\4\f\t\f\4\r\t\r\4\16\t\16\4\17\t\17\4\20\t\20\4\21\t\21\4\22\t\22"+
+		"\4\23\t\23\4\24\t\24\4\25\t\25\4\26\t\26\4\27\t\27\4\30\t\30\4\31\t\31"+
+		"\4\32\t\32\4\33\t\33\4\34\t\34\4\35\t\35\4\36\t\36\4\37\t\37\4 \t \4!"+
+		"\t!\4\"\t\"\4#\t#\4$\t$\4%\t%\4&\t&\3\2\3\2\3\2\3\2\3\2\3\3\3\3\3\3\3"+
+		"\3\3\4\3\4\3\4\3\4\3\5\3\5\3\5\3\5\3\6\3\6\3\6\3\6\3\6\3\7\3\7\3\7\3\7"+
+		"\3\b\3\b\3\b\3\t\3\t\3\t\3\n\3\n\3\13\3\13\3\13\3\13\3\f\3\f\3\f\3\f\3"+
+		"\f\3\r\3\r\3\r\3\16\3\16\3\16\3\16\3\17\3\17\3\17\3\17\3\20\3\20\3\20"+
+		"\3\20\3\21\3\21\3\21\3\21\3\22\3\22\3\22\3\22\3\23\3\23\3\23\3\23\3\24"+
+		"\3\24\3\24\3\24\3\25\3\25\3\25\3\25\3\26\3\26\3\26\3\26\3\27\3\27\3\27"+
+		"\3\27\3\27\3\27\3\30\3\30\3\30\3\30\3\30\3\30\3\31\3\31\3\31\3\31\3\31"+
+		"\3\31\3\32\3\32\3\32\3\32\3\32\3\32\3\33\3\33\3\33\3\33\3\33\3\34\3\34"+
+		"\3\34\3\34\3\34\3\35\3\35\3\35\3\35\3\36\3\36\3\36\3\36\3\36\3\37\3\37"+
+		"\3\37\3\37\3\37\3 \3 \3 \3 \3 \3 \3!\3!\3\"\3\"\7\"\u00da\n\"\f\"\16\""+
+		"\u00dd\13\"\3#\3#\5#\u00e1\n#\3#\3#\7#\u00e5\n#\f#\16#\u00e8\13#\5#\u00ea"+
+		"\n#\3$\3$\7$\u00ee\n$\f$\16$\u00f1\13$\3$\3$\3%\6%\u00f6\n%\r%\16%\u00f7"+
+		"\3%\3%\3&\3&\3&\3&\3&\2\2\'\3\3\5\4\7\5\t\6\13\7\r\b\17\t\21\n\23\13\25"+
+		"\f\27\r\31\16\33\17\35\20\37\21!\22#\23%\24\'\25)\26+\27-\30/\31\61\32"+
+		"\63\33\65\34\67\359\36;\37= ?!A\"C#E$G%I&K\'\3\2\6\4\2C\\c|\5\2\62;C\\"+
+		"c|\5\2\f\f\17\17$$\5\2\13\f\17\17\"\"\2\u0105\2\3\3\2\2\2\2\5\3\2\2\2"+
+		"\2\7\3\2\2\2\2\t\3\2\2\2\2\13\3\2\2\2\2\r\3\2\2\2\2\17\3\2\2\2\2\21\3"+
+		"\2\2\2\2\23\3\2\2\2\2\25\3\2\2\2\2\27\3\2\2\2\2\31\3\2\2\2\2\33\3\2\2"+
+		"\2\2\35\3\2\2\2\2\37\3\2\2\2\2!\3\2\2\2\2#\3\2\2\2\2%\3\2\2\2\2\'\3\2"+
+		"\2\2\2)\3\2\2\2\2+\3\2\2\2\2-\3\2\2\2\2/\3\2\2\2\2\61\3\2\2\2\2\63\3\2"+
+		"\2\2\2\65\3\2\2\2\2\67\3\2\2\2\29\3\2\2\2\2;\3\2\2\2\2=\3\2\2\2\2?\3\2"+
+		"\2\2\2A\3\2\2\2\2C\3\2\2\2\2E\3\2\2\2\2G\3\2\2\2\2I\3\2\2\2\2K\3\2\2\2"+
+		"\3M\3\2\2\2\5R\3\2\2\2\7V\3\2\2\2\tZ\3\2\2\2\13^\3\2\2\2\rc\3\2\2\2\17"+
+		"g\3\2\2\2\21j\3\2\2\2\23m\3\2\2\2\25o\3\2\2\2\27s\3\2\2\2\31x\3\2\2\2"+
+		"\33{\3\2\2\2\35\177\3\2\2\2\37\u0083\3\2\2\2!\u0087\3\2\2\2#\u008b\3\2"+
+		"\2\2%\u008f\3\2\2\2\'\u0093\3\2\2\2)\u0097\3\2\2\2+\u009b\3\2\2\2-\u009f"+
+		"\3\2\2\2/\u00a5\3\2\2\2\61\u00ab\3\2\2\2\63\u00b1\3\2\2\2\65\u00b7\3\2"+
+		"\2\2\67\u00bc\3\2\2\29\u00c1\3\2\2\2;\u00c5\3\2\2\2=\u00ca\3\2\2\2?\u00cf"+
+		"\3\2\2\2A\u00d5\3\2\2\2C\u00d7\3\2\2\2E\u00e9\3\2\2\2G\u00eb\3\2\2\2I"+
+		"\u00f5\3\2\2\2K\u00fb\3\2\2\2MN\7r\2\2NO\7w\2\2OP\7u\2\2PQ\7j\2\2Q\4\3"+
+		"\2\2\2RS\7r\2\2ST\7q\2\2TU\7r\2\2U\6\3\2\2\2VW\7c\2\2WX\7f\2\2XY\7f\2"+
+		"\2Y\b\3\2\2\2Z[\7u\2\2[\\\7w\2\2\\]\7d\2\2]\n\3\2\2\2^_\7o\2\2_`\7w\2"+
+		"\2`a\7n\2\2ab\7v\2\2b\f\3\2\2\2cd\7f\2\2de\7k\2\2ef\7x\2\2f\16\3\2\2\2"+
+		"gh\7u\2\2hi\7y\2\2i\20\3\2\2\2jk\7n\2\2kl\7y\2\2l\22\3\2\2\2mn\7d\2\2"+
+		"n\24\3\2\2\2op\7d\2\2pq\7g\2\2qr\7s\2\2r\26\3\2\2\2st\7d\2\2tu\7n\2\2"+
+		"uv\7g\2\2vw\7s\2\2w\30\3\2\2\2xy\7l\2\2yz\7u\2\2z\32\3\2\2\2{|\7n\2\2"+
+		"|}\7t\2\2}~\7c\2\2~\34\3\2\2\2\177\u0080\7u\2\2\u0080\u0081\7t\2\2\u0081"+
+		"\u0082\7c\2\2\u0082\36\3\2\2\2\u0083\u0084\7n\2\2\u0084\u0085\7v\2\2\u0085"+
+		"\u0086\7o\2\2\u0086 \3\2\2\2\u0087\u0088\7u\2\2\u0088\u0089\7v\2\2\u0089"+
+		"\u008a\7o\2\2\u008a\"\3\2\2\2\u008b\u008c\7n\2\2\u008c\u008d\7h\2\2\u008d"+
+		"\u008e\7r\2\2\u008e$\3\2\2\2\u008f\u0090\7u\2\2\u0090\u0091\7h\2\2\u0091"+
+		"\u0092\7r\2\2\u0092&\3\2\2\2\u0093\u0094\7e\2\2\u0094\u0095\7h\2\2\u0095"+
+		"\u0096\7r\2\2\u0096(\3\2\2\2\u0097\u0098\7n\2\2\u0098\u0099\7j\2\2\u0099"+
+		"\u009a\7r\2\2\u009a*\3\2\2\2\u009b\u009c\7u\2\2\u009c\u009d\7j\2\2\u009d"+
+		"\u009e\7r\2\2\u009e,\3\2\2\2\u009f\u00a0\7n\2\2\u00a0\u00a1\7f\2\2\u00a1"+
+		"\u00a2\7k\2\2\u00a2\u00a3\7u\2\2\u00a3\u00a4\7r\2\2\u00a4.\3\2\2\2\u00a5"+
+		"\u00a6\7u\2\2\u00a6\u00a7\7f\2\2\u00a7\u00a8\7k\2\2\u00a8\u00a9\7u\2\2"+
+		"\u00a9\u00aa\7r\2\2\u00aa\60\3\2\2\2\u00ab\u00ac\7t\2\2\u00ac\u00ad\7"+
+		"f\2\2\u00ad\u00ae\7k\2\2\u00ae\u00af\7u\2\2\u00af\u00b0\7r\2\2\u00b0\62"+
+		"\3\2\2\2\u00b1\u00b2\7r\2\2\u00b2\u00b3\7t\2\2\u00b3\u00b4\7k\2\2\u00b4"+
+		"\u00b5\7p\2\2\u00b5\u00b6\7v\2\2\u00b6\64\3\2\2\2\u00b7\u00b8\7j\2\2\u00b8"+
+		"\u00b9\7c\2\2\u00b9\u00ba\7n\2\2\u00ba\u00bb\7v\2\2\u00bb\66\3\2\2\2\u00bc"+
+		"\u00bd\7f\2\2\u00bd\u00be\7c\2\2\u00be\u00bf\7v\2\2\u00bf\u00c0\7c\2\2"+
+		"\u00c08\3\2\2\2\u00c1\u00c2\7p\2\2\u00c2\u00c3\7g\2\2\u00c3\u00c4\7y\2"+
+		"\2\u00c4:\3\2\2\2\u00c5\u00c6\7n\2\2\u00c6\u00c7\7k\2\2\u00c7\u00c8\7"+
+		"p\2\2\u00c8\u00c9\7g\2\2\u00c9<\3\2\2\2\u00ca\u00cb\7p\2\2\u00cb\u00cc"+
+		"\7c\2\2\u00cc\u00cd\7o\2\2\u00cd\u00ce\7g\2\2\u00ce>\3\2\2\2\u00cf\u00d0"+
+		"\7e\2\2\u00d0\u00d1\7n\2\2\u00d1\u00d2\7c\2\2\u00d2\u00d3\7u\2\2\u00d3"+
+		"\u00d4\7u\2\2\u00d4@\3\2\2\2\u00d5\u00d6\7<\2\2\u00d6B\3\2\2\2\u00d7\u00db"+
+		"\t\2\2\2\u00d8\u00da\t\3\2\2\u00d9\u00d8\3\2\2\2\u00da\u00dd\3\2\2\2\u00db"+
+		"\u00d9\3\2\2\2\u00db\u00dc\3\2\2\2\u00dcD\3\2\2\2\u00dd\u00db\3\2\2\2"+
+		"\u00de\u00ea\7\62\2\2\u00df\u00e1\7/\2\2\u00e0\u00df\3\2\2\2\u00e0\u00e1"+
+		"\3\2\2\2\u00e1\u00e2\3\2\2\2\u00e2\u00e6\4\63;\2\u00e3\u00e5\4\62;\2\u00e4"+
+		"\u00e3\3\2\2\2\u00e5\u00e8\3\2\2\2\u00e6\u00e4\3\2\2\2\u00e6\u00e7\3\2"+
+		"\2\2\u00e7\u00ea\3\2\2\2\u00e8\u00e6\3\2\2\2\u00e9\u00de\3\2\2\2\u00e9"+
+		"\u00e0\3\2\2\2\u00eaF\3\2\2\2\u00eb\u00ef\7$\2\2\u00ec\u00ee\n\4\2\2\u00ed"+
+		"\u00ec\3\2\2\2\u00ee\u00f1\3\2\2\2\u00ef\u00ed\3\2\2\2\u00ef\u00f0\3\2"+
+		"\2\2\u00f0\u00f2\3\2\2\2\u00f1\u00ef\3\2\2\2\u00f2\u00f3\7$\2\2\u00f3"+
+		"H\3\2\2\2\u00f4\u00f6\t\5\2\2\u00f5\u00f4\3\2\2\2\u00f6\u00f7\3\2\2\2"+
+		"\u00f7\u00f5\3\2\2\2\u00f7\u00f8\3\2\2\2\u00f8\u00f9\3\2\2\2\u00f9\u00fa"+
+		"\b%\2\2\u00faJ\3\2\2\2\u00fb\u00fc\13\2\2\2\u00fc\u00fd\b&\3\2\u00fd\u00fe"+
+		"\3\2\2\2\u00fe\u00ff\b&\2\2\u00ffL\3\2\2\2\t\2\u00db\u00e0\u00e6\u00e9"+
+		"\u00ef\u00f7\4\2\3\2\3&\2";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
 	static {
@@ -1,4 +1,4 @@
-// Generated from C:/Users/rikys/Desktop/LCMC-Project-A.A-21-22/src/svm\SVM.g4 by ANTLR 4.9.2
+// Generated from SVM.g4 by ANTLR 4.9.3
 package svm;
 
 import java.util.*;
@@ -14,7 +14,7 @@ import java.util.ArrayList;
 
 @SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast"})
 public class SVMParser extends Parser {
-	static { RuntimeMetaData.checkVersion("4.9.2", RuntimeMetaData.VERSION); }
+	static { RuntimeMetaData.checkVersion("4.9.3", RuntimeMetaData.VERSION); }
 
 	protected static final DFA[] _decisionToDFA;
 	protected static final PredictionContextCache _sharedContextCache =
@@ -22,8 +22,10 @@ public class SVMParser extends Parser {
 	public static final int
 		PUSH=1, POP=2, ADD=3, SUB=4, MULT=5, DIV=6, STOREW=7, LOADW=8, BRANCH=9, 
 		BRANCHEQ=10, BRANCHLESSEQ=11, JS=12, LOADRA=13, STORERA=14, LOADTM=15, 
-		STORETM=16, LOADFP=17, STOREFP=18, COPYFP=19, LOADHP=20, STOREHP=21, PRINT=22, 
-		HALT=23, COL=24, LABEL=25, INTEGER=26, WHITESP=27, ERR=28;
+		STORETM=16, LOADFP=17, STOREFP=18, COPYFP=19, LOADHP=20, STOREHP=21, LOADDISPLAY=22, 
+		STOREDISPLAY=23, RESTOREDISPLAY=24, PRINT=25, HALT=26, DATA=27, NEW=28, 
+		LINE=29, NAME=30, CLASS=31, COL=32, LABEL=33, INTEGER=34, STRING=35, WHITESP=36, 
+		ERR=37;
 	public static final int
 		RULE_assembly = 0, RULE_instruction = 1;
 	private static String[] makeRuleNames() {
@@ -37,8 +39,9 @@ public class SVMParser extends Parser {
 		return new String[] {
 			null, "'push'", "'pop'", "'add'", "'sub'", "'mult'", "'div'", "'sw'", 
 			"'lw'", "'b'", "'beq'", "'bleq'", "'js'", "'lra'", "'sra'", "'ltm'", 
-			"'stm'", "'lfp'", "'sfp'", "'cfp'", "'lhp'", "'shp'", "'print'", "'halt'", 
-			"':'"
+			"'stm'", "'lfp'", "'sfp'", "'cfp'", "'lhp'", "'shp'", "'ldisp'", "'sdisp'", 
+			"'rdisp'", "'print'", "'halt'", "'data'", "'new'", "'line'", "'name'", 
+			"'class'", "':'"
 		};
 	}
 	private static final String[] _LITERAL_NAMES = makeLiteralNames();
@@ -46,8 +49,9 @@ public class SVMParser extends Parser {
 		return new String[] {
 			null, "PUSH", "POP", "ADD", "SUB", "MULT", "DIV", "STOREW", "LOADW", 
 			"BRANCH", "BRANCHEQ", "BRANCHLESSEQ", "JS", "LOADRA", "STORERA", "LOADTM", 
-			"STORETM", "LOADFP", "STOREFP", "COPYFP", "LOADHP", "STOREHP", "PRINT", 
-			"HALT", "COL", "LABEL", "INTEGER", "WHITESP", "ERR"
+			"STORETM", "LOADFP", "STOREFP", "COPYFP", "LOADHP", "STOREHP", "LOADDISPLAY", 
+			"STOREDISPLAY", "RESTOREDISPLAY", "PRINT", "HALT", "DATA", "NEW", "LINE", 
+			"NAME", "CLASS", "COL", "LABEL", "INTEGER", "STRING", "WHITESP", "ERR"
 		};
 	}
 	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
@@ -98,9 +102,34 @@ public class SVMParser extends Parser {
 
 	 
 	public int[] code = new int[ExecuteVM.CODESIZE];    
+	public int[] data = new int[ExecuteVM.MEMSIZE]; // segmento dati, caricato in memoria da indirizzo 0
+	public int[] lines = new int[ExecuteVM.CODESIZE]; // riga del sorgente assembly di ogni parola di codice
+	public int[] sourceLines = new int[ExecuteVM.CODESIZE]; // riga e colonna del sorgente FOOL (-1 se non nota)
+	public int[] sourceColumns = new int[ExecuteVM.CODESIZE];
+	private int sourceLine = -1;
+	private int sourceColumn = -1;
+	private Map<String,String> names = new HashMap<>(); // nome nel sorgente delle funzioni, per etichetta
+	private Map<String,Integer> parameters = new HashMap<>(); // numero di parametri delle funzioni, per etichetta
+	private Map<Integer,String> classes = new HashMap<>(); // classe allocata da ogni new, per indirizzo dell'istruzione
 	private int i = 0;
+	private int d = 0;
 	private Map<String,Integer> labelDef = new HashMap<>();
 	private Map<Integer,String> labelRef = new HashMap<>();
+	private Map<Integer,String> dataRef = new HashMap<>();
+	private Set<Integer> entries = new TreeSet<>(); // etichette usate come valori: ingressi di funzioni e metodi
+	public Map<String,Integer> labels() { return labelDef; }
+	public int codeLength() { return i; } // parole di codice assemblate
+	public Set<Integer> entries() { return entries; }
+	public Map<String,String> names() { return names; }
+	public Map<String,Integer> parameters() { return parameters; }
+	public Map<Integer,String> classes() { return classes; }
+
+	private int resolve(String label) {
+	  Integer address = labelDef.get(label);
+	  if (address != null) return address;
+	  notifyErrorListeners("undefined label " + label);
+	  return -1;
+	}
 
 	public SVMParser(TokenStream input) {
 		super(input);
@@ -144,7 +173,7 @@ public class SVMParser extends Parser {
 			setState(7);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
-			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << PUSH) | (1L << POP) | (1L << ADD) | (1L << SUB) | (1L << MULT) | (1L << DIV) | (1L << STOREW) | (1L << LOADW) | (1L << BRANCH) | (1L << BRANCHEQ) | (1L << BRANCHLESSEQ) | (1L << JS) | (1L << LOADRA) | (1L << STORERA) | (1L << LOADTM) | (1L << STORETM) | (1L << LOADFP) | (1L << STOREFP) | (1L << COPYFP) | (1L << LOADHP) | (1L << STOREHP) | (1L << PRINT) | (1L << HALT) | (1L << LABEL))) != 0)) {
+			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << PUSH) | (1L << POP) | (1L << ADD) | (1L << SUB) | (1L << MULT) | (1L << DIV) | (1L << STOREW) | (1L << LOADW) | (1L << BRANCH) | (1L << BRANCHEQ) | (1L << BRANCHLESSEQ) | (1L << JS) | (1L << LOADRA) | (1L << STORERA) | (1L << LOADTM) | (1L << STORETM) | (1L << LOADFP) | (1L << STOREFP) | (1L << COPYFP) | (1L << LOADHP) | (1L << STOREHP) | (1L << LOADDISPLAY) | (1L << STOREDISPLAY) | (1L << RESTOREDISPLAY) | (1L << PRINT) | (1L << HALT) | (1L << DATA) | (1L << NEW) | (1L << LINE) | (1L << NAME) | (1L << CLASS) | (1L << LABEL))) != 0)) {
 				{
 				{
 				setState(4);
@@ -157,8 +186,13 @@ public class SVMParser extends Parser {
 			}
 			setState(10);
 			match(EOF);
-			 for (Integer j: labelRef.keySet()) 
-											code[j]=labelDef.get(labelRef.get(j)); 
+			 for (Integer j: labelRef.keySet()) {
+											code[j]=resolve(labelRef.get(j)); 
+											if (code[j-1] == PUSH) entries.add(code[j]);
+										  }
+										  for (Integer j: dataRef.keySet()) 
+											entries.add(data[j]=resolve(dataRef.get(j))); 
+										  data = Arrays.copyOf(data, d);
 										
 			}
 		}
@@ -176,8 +210,14 @@ public class SVMParser extends Parser {
 	public static class InstructionContext extends ParserRuleContext {
 		public Token n;
 		public Token l;
+		public Token dp;
+		public Token c;
+		public Token s;
 		public TerminalNode PUSH() { return getToken(SVMParser.PUSH, 0); }
-		public TerminalNode INTEGER() { return getToken(SVMParser.INTEGER, 0); }
+		public List<TerminalNode> INTEGER() { return getTokens(SVMParser.INTEGER); }
+		public TerminalNode INTEGER(int i) {
+			return getToken(SVMParser.INTEGER, i);
+		}
 		public TerminalNode LABEL() { return getToken(SVMParser.LABEL, 0); }
 		public TerminalNode POP() { return getToken(SVMParser.POP, 0); }
 		public TerminalNode ADD() { return getToken(SVMParser.ADD, 0); }
@@ -200,8 +240,17 @@ public class SVMParser extends Parser {
 		public TerminalNode COPYFP() { return getToken(SVMParser.COPYFP, 0); }
 		public TerminalNode LOADHP() { return getToken(SVMParser.LOADHP, 0); }
 		public TerminalNode STOREHP() { return getToken(SVMParser.STOREHP, 0); }
+		public TerminalNode LOADDISPLAY() { return getToken(SVMParser.LOADDISPLAY, 0); }
+		public TerminalNode STOREDISPLAY() { return getToken(SVMParser.STOREDISPLAY, 0); }
+		public TerminalNode RESTOREDISPLAY() { return getToken(SVMParser.RESTOREDISPLAY, 0); }
 		public TerminalNode PRINT() { return getToken(SVMParser.PRINT, 0); }
 		public TerminalNode HALT() { return getToken(SVMParser.HALT, 0); }
+		public TerminalNode NEW() { return getToken(SVMParser.NEW, 0); }
+		public TerminalNode DATA() { return getToken(SVMParser.DATA, 0); }
+		public TerminalNode LINE() { return getToken(SVMParser.LINE, 0); }
+		public TerminalNode NAME() { return getToken(SVMParser.NAME, 0); }
+		public TerminalNode STRING() { return getToken(SVMParser.STRING, 0); }
+		public TerminalNode CLASS() { return getToken(SVMParser.CLASS, 0); }
 		public InstructionContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
 		}
@@ -224,8 +273,9 @@ public class SVMParser extends Parser {
 	public final InstructionContext instruction() throws RecognitionException {
 		InstructionContext _localctx = new InstructionContext(_ctx, getState());
 		enterRule(_localctx, 2, RULE_instruction);
+		 int first = i; 
 		try {
-			setState(69);
+			setState(100);
 			_errHandler.sync(this);
 			switch ( getInterpreter().adaptivePredict(_input,1,_ctx) ) {
 			case 1:
@@ -313,7 +363,7 @@ public class SVMParser extends Parser {
 				((InstructionContext)_localctx).l = match(LABEL);
 				setState(34);
 				match(COL);
-				labelDef.put((((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null),i);
+				if (labelDef.put((((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null),i) != null) notifyErrorListeners(((InstructionContext)_localctx).l, "label " + (((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null) + " already defined", null);
 				}
 				break;
 			case 11:
@@ -433,19 +483,128 @@ public class SVMParser extends Parser {
 				enterOuterAlt(_localctx, 24);
 				{
 				setState(65);
-				match(PRINT);
-				code[i++] = PRINT;
+				match(LOADDISPLAY);
+				setState(66);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				code[i++] = LOADDISPLAY;
+							              code[i++] = Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null));
 				}
 				break;
 			case 25:
 				enterOuterAlt(_localctx, 25);
 				{
-				setState(67);
+				setState(68);
+				match(STOREDISPLAY);
+				setState(69);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				code[i++] = STOREDISPLAY;
+							              code[i++] = Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null));
+				}
+				break;
+			case 26:
+				enterOuterAlt(_localctx, 26);
+				{
+				setState(71);
+				match(RESTOREDISPLAY);
+				setState(72);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				code[i++] = RESTOREDISPLAY;
+							              code[i++] = Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null));
+				}
+				break;
+			case 27:
+				enterOuterAlt(_localctx, 27);
+				{
+				setState(74);
+				match(PRINT);
+				code[i++] = PRINT;
+				}
+				break;
+			case 28:
+				enterOuterAlt(_localctx, 28);
+				{
+				setState(76);
 				match(HALT);
 				code[i++] = HALT;
 				}
 				break;
+			case 29:
+				enterOuterAlt(_localctx, 29);
+				{
+				setState(78);
+				match(NEW);
+				setState(79);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				setState(80);
+				((InstructionContext)_localctx).dp = match(INTEGER);
+				code[i++] = NEW; // numero di campi e dispatch pointer
+							              code[i++] = Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null));
+							              code[i++] = Integer.parseInt((((InstructionContext)_localctx).dp!=null?((InstructionContext)_localctx).dp.getText():null));
+				}
+				break;
+			case 30:
+				enterOuterAlt(_localctx, 30);
+				{
+				setState(82);
+				match(DATA);
+				setState(83);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				data[d++] = Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null));
+				}
+				break;
+			case 31:
+				enterOuterAlt(_localctx, 31);
+				{
+				setState(85);
+				match(DATA);
+				setState(86);
+				((InstructionContext)_localctx).l = match(LABEL);
+				dataRef.put(d++,(((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
+				}
+				break;
+			case 32:
+				enterOuterAlt(_localctx, 32);
+				{
+				setState(88);
+				match(LINE);
+				setState(89);
+				((InstructionContext)_localctx).l = match(INTEGER);
+				setState(90);
+				((InstructionContext)_localctx).c = match(INTEGER);
+				sourceLine = Integer.parseInt((((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null)); // posizione nel sorgente FOOL
+							              sourceColumn = Integer.parseInt((((InstructionContext)_localctx).c!=null?((InstructionContext)_localctx).c.getText():null));
+				}
+				break;
+			case 33:
+				enterOuterAlt(_localctx, 33);
+				{
+				setState(92);
+				match(NAME);
+				setState(93);
+				((InstructionContext)_localctx).l = match(LABEL);
+				setState(94);
+				((InstructionContext)_localctx).s = match(STRING);
+				setState(95);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				names.put((((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null), (((InstructionContext)_localctx).s!=null?((InstructionContext)_localctx).s.getText():null).substring(1, (((InstructionContext)_localctx).s!=null?((InstructionContext)_localctx).s.getText():null).length() - 1));
+							              parameters.put((((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null), Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null)));
+				}
+				break;
+			case 34:
+				enterOuterAlt(_localctx, 34);
+				{
+				setState(97);
+				match(CLASS);
+				setState(98);
+				((InstructionContext)_localctx).s = match(STRING);
+				classes.put(i, (((InstructionContext)_localctx).s!=null?((InstructionContext)_localctx).s.getText():null).substring(1, (((InstructionContext)_localctx).s!=null?((InstructionContext)_localctx).s.getText():null).length() - 1));
+				}
+				break;
 			}
+			_ctx.stop = _input.LT(-1);
+			 Arrays.fill(lines, first, i, _localctx.start.getLine());
+			         Arrays.fill(sourceLines, first, i, sourceLine);
+			         Arrays.fill(sourceColumns, first, i, sourceColumn); 
 		}
 		catch (RecognitionException re) {
 			_localctx.exception = re;
@@ -459,28 +618,35 @@ public class SVMParser extends Parser {
 	}
 
 	public static final String _serializedATN =
-		"\3\u608b\ua72a\u8133\ub9ed\u417c\u3be7\u7786\u5964\3\36J\4\2\t\2\4\3\t"+
+		"\3\u608b\ua72a\u8133\ub9ed\u417c\u3be7\u7786\u5964\3\'i\4\2\t\2\4\3\t"+
 		"\3\3\2\7\2\b\n\2\f\2\16\2\13\13\2\3\2\3\2\3\2\3\3\3\3\3\3\3\3\3\3\3\3"+
 		"\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3"+
 		"\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3"+
-		"\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\5\3H\n\3"+
-		"\3\3\2\2\4\2\4\2\2\2`\2\t\3\2\2\2\4G\3\2\2\2\6\b\5\4\3\2\7\6\3\2\2\2\b"+
-		"\13\3\2\2\2\t\7\3\2\2\2\t\n\3\2\2\2\n\f\3\2\2\2\13\t\3\2\2\2\f\r\7\2\2"+
-		"\3\r\16\b\2\1\2\16\3\3\2\2\2\17\20\7\3\2\2\20\21\7\34\2\2\21H\b\3\1\2"+
-		"\22\23\7\3\2\2\23\24\7\33\2\2\24H\b\3\1\2\25\26\7\4\2\2\26H\b\3\1\2\27"+
-		"\30\7\5\2\2\30H\b\3\1\2\31\32\7\6\2\2\32H\b\3\1\2\33\34\7\7\2\2\34H\b"+
-		"\3\1\2\35\36\7\b\2\2\36H\b\3\1\2\37 \7\t\2\2 H\b\3\1\2!\"\7\n\2\2\"H\b"+
-		"\3\1\2#$\7\33\2\2$%\7\32\2\2%H\b\3\1\2&\'\7\13\2\2\'(\7\33\2\2(H\b\3\1"+
-		"\2)*\7\f\2\2*+\7\33\2\2+H\b\3\1\2,-\7\r\2\2-.\7\33\2\2.H\b\3\1\2/\60\7"+
-		"\16\2\2\60H\b\3\1\2\61\62\7\17\2\2\62H\b\3\1\2\63\64\7\20\2\2\64H\b\3"+
-		"\1\2\65\66\7\21\2\2\66H\b\3\1\2\678\7\22\2\28H\b\3\1\29:\7\23\2\2:H\b"+
-		"\3\1\2;<\7\24\2\2<H\b\3\1\2=>\7\25\2\2>H\b\3\1\2?@\7\26\2\2@H\b\3\1\2"+
-		"AB\7\27\2\2BH\b\3\1\2CD\7\30\2\2DH\b\3\1\2EF\7\31\2\2FH\b\3\1\2G\17\3"+
-		"\2\2\2G\22\3\2\2\2G\25\3\2\2\2G\27\3\2\2\2G\31\3\2\2\2G\33\3\2\2\2G\35"+
-		"\3\2\2\2G\37\3\2\2\2G!\3\2\2\2G#\3\2\2\2G&\3\2\2\2G)\3\2\2\2G,\3\2\2\2"+
-		"G/\3\2\2\2G\61\3\2\2\2G\63\3\2\2\2G\65\3\2\2\2G\67\3\2\2\2G9\3\2\2\2G"+
-		";\3\2\2\2G=\3\2\2\2G?\3\2\2\2GA\3\2\2\2GC\3\2\2\2GE\3\2\2\2H\5\3\2\2\2"+
-		"\4\tG";
+		"\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3"+
+		"\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3"+
+		"\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\5\3g\n\3\3\3\2\2\4\2\4\2"+
+		"\2\2\u0088\2\t\3\2\2\2\4f\3\2\2\2\6\b\5\4\3\2\7\6\3\2\2\2\b\13\3\2\2\2"+
+		"\t\7\3\2\2\2\t\n\3\2\2\2\n\f\3\2\2\2\13\t\3\2\2\2\f\r\7\2\2\3\r\16\b\2"+
+		"\1\2\16\3\3\2\2\2\17\20\7\3\2\2\20\21\7$\2\2\21g\b\3\1\2\22\23\7\3\2\2"+
+		"\23\24\7#\2\2\24g\b\3\1\2\25\26\7\4\2\2\26g\b\3\1\2\27\30\7\5\2\2\30g"+
+		"\b\3\1\2\31\32\7\6\2\2\32g\b\3\1\2\33\34\7\7\2\2\34g\b\3\1\2\35\36\7\b"+
+		"\2\2\36g\b\3\1\2\37 \7\t\2\2 g\b\3\1\2!\"\7\n\2\2\"g\b\3\1\2#$\7#\2\2"+
+		"$%\7\"\2\2%g\b\3\1\2&\'\7\13\2\2\'(\7#\2\2(g\b\3\1\2)*\7\f\2\2*+\7#\2"+
+		"\2+g\b\3\1\2,-\7\r\2\2-.\7#\2\2.g\b\3\1\2/\60\7\16\2\2\60g\b\3\1\2\61"+
+		"\62\7\17\2\2\62g\b\3\1\2\63\64\7\20\2\2\64g\b\3\1\2\65\66\7\21\2\2\66"+
+		"g\b\3\1\2\678\7\22\2\28g\b\3\1\29:\7\23\2\2:g\b\3\1\2;<\7\24\2\2<g\b\3"+
+		"\1\2=>\7\25\2\2>g\b\3\1\2?@\7\26\2\2@g\b\3\1\2AB\7\27\2\2Bg\b\3\1\2CD"+
+		"\7\30\2\2DE\7$\2\2Eg\b\3\1\2FG\7\31\2\2GH\7$\2\2Hg\b\3\1\2IJ\7\32\2\2"+
+		"JK\7$\2\2Kg\b\3\1\2LM\7\33\2\2Mg\b\3\1\2NO\7\34\2\2Og\b\3\1\2PQ\7\36\2"+
+		"\2QR\7$\2\2RS\7$\2\2Sg\b\3\1\2TU\7\35\2\2UV\7$\2\2Vg\b\3\1\2WX\7\35\2"+
+		"\2XY\7#\2\2Yg\b\3\1\2Z[\7\37\2\2[\\\7$\2\2\\]\7$\2\2]g\b\3\1\2^_\7 \2"+
+		"\2_`\7#\2\2`a\7%\2\2ab\7$\2\2bg\b\3\1\2cd\7!\2\2de\7%\2\2eg\b\3\1\2f\17"+
+		"\3\2\2\2f\22\3\2\2\2f\25\3\2\2\2f\27\3\2\2\2f\31\3\2\2\2f\33\3\2\2\2f"+
+		"\35\3\2\2\2f\37\3\2\2\2f!\3\2\2\2f#\3\2\2\2f&\3\2\2\2f)\3\2\2\2f,\3\2"+
+		"\2\2f/\3\2\2\2f\61\3\2\2\2f\63\3\2\2\2f\65\3\2\2\2f\67\3\2\2\2f9\3\2\2"+
+		"\2f;\3\2\2\2f=\3\2\2\2f?\3\2\2\2fA\3\2\2\2fC\3\2\2\2fF\3\2\2\2fI\3\2\2"+
+		"\2fL\3\2\2\2fN\3\2\2\2fP\3\2\2\2fT\3\2\2\2fW\3\2\2\2fZ\3\2\2\2f^\3\2\2"+
+		"\2fc\3\2\2\2g\5\3\2\2\2\4\tf";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
 	static {
@@ -1,4 +1,4 @@
-// Generated from C:/Users/rikys/Desktop/LCMC-Project-A.A-21-22/src/svm\SVM.g4 by ANTLR 4.9.2
+// Generated from SVM.g4 by ANTLR 4.9.3
 package svm;
 
 import java.util.*;
@@ -0,0 +1,80 @@
+package svm;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// profilo delle allocazioni (vedi ExecuteVM.profileAllocations): oggetti e parole di heap allocati
+// da ogni istruzione new, cioe' da ogni espressione new del sorgente, e per classe, sommando i siti
+// che la source map attribuisce alla stessa classe
+public class AllocationProfiler {
+
+    private final Executable program;
+    private final long[] siteObjects; // per indirizzo dell'istruzione new
+    private final long[] siteWords;
+
+    public AllocationProfiler(Executable program) {
+      this.program = program;
+      siteObjects = new long[program.code.length];
+      siteWords = new long[program.code.length];
+    }
+
+    void allocated(int site, int words) {
+      siteObjects[site]++;
+      siteWords[site] += words;
+    }
+
+    public long objects() {
+      long objects = 0;
+      for (long n : siteObjects) objects += n;
+      return objects;
+    }
+
+    public long words() {
+      long words = 0;
+      for (long n : siteWords) words += n;
+      return words;
+    }
+
+    // siti e classi in ordine decrescente di parole allocate
+    public void report(PrintStream out) {
+      out.println("Allocated " + objects() + " objects, " + words() + " words");
+      out.println();
+      out.println(String.format("%10s %10s  %s", "words", "objects", "site"));
+      List<Integer> sites = new ArrayList<>();
+      Map<String,long[]> classes = new HashMap<>(); // per nome della classe: {oggetti, parole}
+      for (int site = 0; site < siteObjects.length; site++)
+        if (siteObjects[site] > 0) {
+          sites.add(site);
+          long[] c = classes.computeIfAbsent(className(site), k -> new long[2]);
+          c[0] += siteObjects[site];
+          c[1] += siteWords[site];
+        }
+      sites.sort(Comparator.comparingLong((Integer site) -> siteWords[site]).reversed());
+      for (int site : sites)
+        out.println(String.format("%10d %10d  ", siteWords[site], siteObjects[site]) + describeSite(site));
+      out.println();
+      out.println(String.format("%10s %10s  %s", "words", "objects", "class"));
+      List<Map.Entry<String,long[]>> byClass = new ArrayList<>(classes.entrySet());
+      byClass.sort(Comparator.comparingLong((Map.Entry<String,long[]> e) -> e.getValue()[1]).reversed());
+      for (Map.Entry<String,long[]> e : byClass)
+        out.println(String.format("%10d %10d  ", e.getValue()[1], e.getValue()[0]) + e.getKey());
+    }
+
+    // es. "new List in build (6:34)"
+    private String describeSite(int site) {
+      String position = program.sourceMap.position(site);
+      return "new " + className(site) + " in " + program.functionAt(program.functionContaining(site))
+          + (position == null ? " (ip " + site + ")" : " (" + position + ")");
+    }
+
+    // senza source map: le classi sono distinte solo dal dispatch pointer
+    private String className(int site) {
+      String name = program.sourceMap.className(site);
+      return name != null ? name : "dispatch table " + program.code[site + 2];
+    }
+
+}
@@ -0,0 +1,66 @@
+package svm;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+// programma assemblato: codice e contenuto iniziale della memoria (segmento dati da indirizzo 0)
+public class Executable {
+
+    public final int[] code;
+    public final int length; // parole effettivamente assemblate (code puo' essere piu' lungo)
+    public final int[] data;
+    public final Map<String,Integer> labels; // indirizzo di ogni etichetta del codice
+    public final NavigableSet<Integer> entries; // indirizzi di ingresso di funzioni e metodi (etichette usate come valori)
+    public final SourceMap sourceMap;
+
+    // calcolati da Verifier, per indirizzo: altezza che lo stack puo' raggiungere dall'ingresso di ogni
+    // funzione e da ogni punto di ritorno (stackDepths), e dopo ogni new (allocationDepths)
+    int[] stackDepths;
+    int[] allocationDepths;
+
+    public Executable(int[] code, int length, int[] data, Map<String,Integer> labels, Set<Integer> entries, SourceMap sourceMap) {
+      this.code = code;
+      this.length = length;
+      this.data = data;
+      this.labels = Collections.unmodifiableMap(labels);
+      this.entries = Collections.unmodifiableNavigableSet(new TreeSet<>(entries));
+      this.sourceMap = sourceMap;
+    }
+
+    public Executable(int[] code, int[] data, Map<String,Integer> labels) {
+      this(code, code.length, data, labels, Collections.emptySet(), SourceMap.EMPTY);
+    }
+
+    public Executable(int[] code, int[] data) {
+      this(code, data, Collections.emptyMap());
+    }
+
+    public Executable(SVMParser parser) {
+      this(parser.code, parser.codeLength(), parser.data, parser.labels(), parser.entries(), new SourceMap(parser));
+    }
+
+    // true se il codice ha superato la verifica (vedi Verifier)
+    public boolean verified() {
+      return stackDepths != null;
+    }
+
+    // ingresso della funzione il cui codice contiene l'indirizzo dato (0 per il main): il codice di ogni
+    // funzione e' contiguo e inizia dal suo ingresso
+    public int functionContaining(int address) {
+      Integer entry = entries.floor(address);
+      return entry == null ? 0 : entry;
+    }
+
+    // nome della funzione che inizia all'indirizzo dato (nel sorgente, se noto), per i messaggi di errore
+    public String functionAt(int address) {
+      if (address == 0) return "main";
+      if (sourceMap.name(address) != null) return sourceMap.name(address);
+      for (Map.Entry<String,Integer> label : labels.entrySet())
+        if (label.getValue() == address) return label.getKey();
+      return "at address " + address;
+    }
+
+}
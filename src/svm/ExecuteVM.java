@@ -1,25 +1,155 @@
 package svm;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
 public class ExecuteVM {
     
     public static final int CODESIZE = 10000;
     public static final int MEMSIZE = 10000;
+    public static final int DISPLAYSIZE = 100;
     
-    private int[] code;
-    private int[] memory = new int[MEMSIZE];
+    private final Executable program;
+    private final int[] code; // mai modificato: condivisibile tra piu' esecuzioni concorrenti
+    private final int[] stackDepths; // stack richiesto da ogni funzione e punto di ritorno (tutto a 0 se il codice non e' verificato)
+    private final int[] allocationDepths; // stack richiesto dopo ogni new (idem)
+    private final Memory memory;
+    private final PrintStream out;
     
     private int ip = 0;
-    private int sp = MEMSIZE;
+    private int sp;
     
     private int hp = 0;       
-    private int fp = MEMSIZE; 
+    private int fp; 
     private int ra;           
     private int tm;
     
+    private int[] display = new int[DISPLAYSIZE]; // frame pointer of the active frame at each nesting level
+    private int[] displaySaved = new int[DISPLAYSIZE]; // display entries overwritten by STOREDISPLAY (cresce se serve)
+    private int dsp = 0;
+    
+    private boolean halted = false;
+    private long jumps = 0; // salti e chiamate eseguiti
+    private AllocationProfiler allocations; // null se le allocazioni non sono registrate
+    
     public ExecuteVM(int[] code) {
-      this.code = code;
+      this(code, new int[0]);
+    }
+    
+    public ExecuteVM(int[] code, int[] data) {
+      this(code, data, Memory.array(MEMSIZE), System.out);
+    }
+    
+    public ExecuteVM(Executable program) {
+      this(program, Memory.array(MEMSIZE), System.out);
+    }
+    
+    public ExecuteVM(int[] code, int[] data, Memory memory, PrintStream out) {
+      this(new Executable(code, data), memory, out);
+    }
+    
+    // la memoria deve essere azzerata: lo stack parte dalla sua ultima cella, per cui il codice generato
+    // non dipende dalla dimensione della memoria (il frame globale e' nel display, al livello 0)
+    public ExecuteVM(Executable program, Memory memory, PrintStream out) {
+      this.program = program;
+      this.code = program.code;
+      this.stackDepths = program.verified() ? program.stackDepths : new int[code.length];
+      this.allocationDepths = program.verified() ? program.allocationDepths : new int[code.length];
+      this.memory = memory;
+      this.out = out;
+      sp = fp = memory.size();
+      display[0] = fp; // global frame
+      memory.write(0, program.data); // segmento dati caricato prima dello heap
+      hp = program.data.length;
+      if (sp - stackDepths[0] < hp)
+        throw new IllegalArgumentException("Memory of " + sp + " cells too small for the main program");
+    }
+    
+    // riprende l'esecuzione dallo stato salvato (per lo stesso programma)
+    public ExecuteVM(int[] code, Snapshot snapshot) {
+      this(code, snapshot, Memory.array(snapshot.size), System.out);
+    }
+    
+    public ExecuteVM(int[] code, Snapshot snapshot, Memory memory, PrintStream out) {
+      this(new Executable(code, new int[0]), snapshot, memory, out);
+    }
+    
+    public ExecuteVM(Executable program, Snapshot snapshot, Memory memory, PrintStream out) {
+      if (!snapshot.matches(program.code)) throw new IllegalArgumentException("Snapshot of a different program");
+      if (snapshot.size != memory.size()) throw new IllegalArgumentException("Snapshot of a memory of " + snapshot.size + " cells");
+      this.program = program;
+      this.code = program.code;
+      this.stackDepths = program.verified() ? program.stackDepths : new int[code.length];
+      this.allocationDepths = program.verified() ? program.allocationDepths : new int[code.length];
+      this.memory = memory;
+      this.out = out;
+      ip = snapshot.ip;
+      sp = snapshot.sp;
+      hp = snapshot.hp;
+      fp = snapshot.fp;
+      ra = snapshot.ra;
+      tm = snapshot.tm;
+      halted = snapshot.halted;
+      jumps = snapshot.jumps;
+      System.arraycopy(snapshot.display, 0, display, 0, DISPLAYSIZE);
+      dsp = snapshot.displaySaved.length;
+      displaySaved = Arrays.copyOf(snapshot.displaySaved, Math.max(dsp, DISPLAYSIZE));
+      memory.write(0, snapshot.heap);
+      memory.write(sp, snapshot.stack);
+    }
+    
+    public Snapshot snapshot() {
+      return snapshot(code, ip, halted);
+    }
+    
+    Snapshot snapshot(int[] code, int ip, boolean halted) {
+      return new Snapshot(code, Arrays.hashCode(code), memory.size(), ip, sp, hp, fp, ra, tm, halted, jumps,
+          display.clone(), Arrays.copyOf(displaySaved, dsp), memory.read(0, hp), memory.read(sp, memory.size() - sp));
+    }
+    
+    // registra ogni allocazione nel profilo dato (solo l'istruzione new ne paga il controllo)
+    public void profileAllocations(AllocationProfiler profiler) {
+      allocations = profiler;
+    }
+    
+    int ip() {
+      return ip;
+    }
+    
+    int fp() {
+      return fp;
+    }
+    
+    int ra() {
+      return ra;
+    }
+    
+    Memory memory() {
+      return memory;
     }
     
     public void cpu() {
+      while ( !run(Long.MAX_VALUE) );
+    }
+    
+    // esegue il programma fino a "slice" salti o chiamate (b, beq, bleq, js): ogni ciclo ne esegue
+    // almeno uno, per cui un programma che non termina viene comunque interrotto, e il controllo non
+    // pesa sulle altre istruzioni. Lo stato resta nei registri e nella memoria, per cui la chiamata
+    // successiva riprende dal punto raggiunto. Ritorna true se il programma e' terminato.
+    // Gli errori di esecuzione sono lanciati come VMFault e fermano la VM
+    public boolean run(long slice) {
+      if (halted) return true;
+      try {
+        return execute(slice);
+      } catch (ArithmeticException e) { // intercettate solo qui: nessun controllo sulle singole istruzioni
+        throw fault(VMFault.Code.DIVISION_BY_ZERO, instructionAt(ip - 1), null, 0, e);
+      } catch (IndexOutOfBoundsException e) {
+        throw outOfBounds(e);
+      }
+    }
+    
+    private boolean execute(long slice) {
+      long left = slice;
       while ( true ) {
         int bytecode = code[ip++]; // fetch
         int v1,v2;
@@ -53,31 +183,39 @@ public class ExecuteVM {
             break;
           case SVMParser.STOREW : //
             address = pop();
-            memory[address] = pop();    
+            memory.set(address, pop());    
             break;
           case SVMParser.LOADW : //
-            push(memory[pop()]);
+            push(memory.get(pop()));
             break;
           case SVMParser.BRANCH : 
             address = code[ip];
             ip = address;
+            if (--left == 0) return suspend(slice);
             break;
           case SVMParser.BRANCHEQ :
             address = code[ip++];
             v1=pop();
             v2=pop();
             if (v2 == v1) ip = address;
+            if (--left == 0) return suspend(slice);
             break;
           case SVMParser.BRANCHLESSEQ :
             address = code[ip++];
             v1=pop();
             v2=pop();
             if (v2 <= v1) ip = address;
+            if (--left == 0) return suspend(slice);
             break;
           case SVMParser.JS : //
             address = pop();
+            if (sp - stackDepths[address] < hp) // controllo dello stack: all'ingresso della funzione o al ritorno
+              throw fault(VMFault.Code.STACK_OVERFLOW, ip - 1, program.entries.contains(address)
+                  ? "in function " + program.functionAt(address)
+                  : "returning to " + program.functionAt(program.functionContaining(address)), slice - left, null);
             ra = ip;
             ip = address;
+            if (--left == 0) return suspend(slice);
             break;
          case SVMParser.STORERA : //
             ra=pop();
@@ -106,21 +244,95 @@ public class ExecuteVM {
          case SVMParser.LOADHP : //
             push(hp);
             break;
+         case SVMParser.LOADDISPLAY :
+            push(display[code[ip++]]);
+            break;
+         case SVMParser.STOREDISPLAY :
+            address = code[ip++];
+            if (dsp == displaySaved.length) displaySaved = Arrays.copyOf(displaySaved, 2 * dsp);
+            displaySaved[dsp++] = display[address];
+            display[address] = pop();
+            break;
+         case SVMParser.RESTOREDISPLAY :
+            display[code[ip++]] = displaySaved[--dsp];
+            break;
          case SVMParser.PRINT :
-            System.out.println((sp<MEMSIZE)?memory[sp]:"Empty stack!");
+            out.println((sp<memory.size())?memory.get(sp):"Empty stack!");
+            break;
+         case SVMParser.NEW : // i campi sono scritti sotto il dispatch pointer, l'ultimo argomento per primo
+            v1 = code[ip++];
+            v2 = code[ip++];
+            address = hp + v1; // object pointer
+            if (address >= sp + v1 - 1 - allocationDepths[ip - 3]) // l'oggetto non deve raggiungere lo stack che resta alla funzione
+              throw fault(VMFault.Code.OUT_OF_MEMORY, ip - 3, null, slice - left, null);
+            while (hp < address) memory.set(hp++, pop());
+            memory.set(hp++, v2);
+            push(address);
+            if (allocations != null) allocations.allocated(ip - 3, v1 + 1);
             break;
          case SVMParser.HALT :
-            return;
+            return halt(slice - left);
+         default : // solo su codice non verificato (vedi Verifier)
+            throw fault(VMFault.Code.ILLEGAL_OPCODE, ip - 1, "opcode " + bytecode, slice - left, null);
         }
       }
     } 
     
+    private boolean suspend(long count) {
+      jumps += count;
+      return false;
+    }
+    
+    private boolean halt(long count) {
+      halted = true;
+      jumps += count;
+      return true;
+    }
+    
+    private VMFault fault(VMFault.Code code, int at, String detail, long count, Throwable cause) {
+      halt(count);
+      return new VMFault(code, detail, at, program, sp, hp, fp, ra, tm, cause);
+    }
+    
+    // accesso fuori da memoria, codice o display: la causa si ricava dallo stato al momento dell'errore
+    private VMFault outOfBounds(IndexOutOfBoundsException e) {
+      if (ip - 1 < 0 || ip - 1 >= code.length) // fetch fuori dal codice, dopo l'ultimo js (che ha impostato ra)
+        return fault(VMFault.Code.BAD_JUMP, ra - 1, "to " + (ip - 1), 0, e);
+      int at = instructionAt(ip - 1);
+      if (sp > memory.size()) return fault(VMFault.Code.STACK_UNDERFLOW, at, null, 0, e);
+      if (sp < 0) return fault(VMFault.Code.STACK_OVERFLOW, at, null, 0, e);
+      switch (code[at]) {
+        case SVMParser.JS:
+          return fault(VMFault.Code.BAD_JUMP, at, "to " + memory.get(sp - 1), 0, e);
+        case SVMParser.LOADW: // l'indirizzo e' l'ultimo valore tolto dallo stack
+          return fault(VMFault.Code.BAD_ADDRESS, at, "address " + memory.get(sp - 1), 0, e);
+        case SVMParser.STOREW:
+          return fault(VMFault.Code.BAD_ADDRESS, at, "address " + memory.get(sp - 2), 0, e);
+      }
+      return fault(VMFault.Code.BAD_ADDRESS, at, e.getMessage(), 0, e);
+    }
+    
+    // inizio dell'istruzione che contiene l'indirizzo dato (solo per segnalare gli errori)
+    private int instructionAt(int address) {
+      int start = 0;
+      while (start < program.length) {
+        int next = start + 1 + Math.max(0, Verifier.operands(code[start]));
+        if (next > address) return start;
+        start = next;
+      }
+      return address;
+    }
+    
+    public long executedJumps() {
+      return jumps;
+    }
+    
     private int pop() {
-      return memory[sp++];
+      return memory.get(sp++);
     }
     
     private void push(int v) {
-      memory[--sp] = v;
+      memory.set(--sp, v);
     }
     
 }
\ No newline at end of file
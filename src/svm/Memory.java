@@ -0,0 +1,125 @@
+package svm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// memoria della VM: array Java (default), buffer diretto fuori dallo heap della JVM, oppure file
+// mappato in memoria, visibile ad altri processi. Le celle sono interi di 4 byte nell'ordine nativo
+// della macchina; un accesso fuori dalla memoria solleva IndexOutOfBoundsException.
+public abstract class Memory {
+
+    public abstract int size();
+
+    public abstract int get(int address);
+
+    public abstract void set(int address, int value);
+
+    // copia le celle [from, from+length)
+    public abstract int[] read(int from, int length);
+
+    public abstract void write(int address, int[] values);
+
+    public abstract void clear();
+
+    public static Memory array(int size) {
+      return new ArrayMemory(size);
+    }
+
+    public static Memory direct(int size) {
+      return new BufferMemory(ByteBuffer.allocateDirect(4 * size).order(ByteOrder.nativeOrder()).asIntBuffer());
+    }
+
+    // il file viene creato, o esteso, a 4*size byte; il contenuto esistente non e' azzerato
+    public static Memory mapped(Path file, int size) throws IOException {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE)) {
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, 4L * size); // resta valido dopo la close
+        return new BufferMemory(buffer.order(ByteOrder.nativeOrder()).asIntBuffer());
+      }
+    }
+
+    private static final class ArrayMemory extends Memory {
+      private final int[] cells;
+
+      ArrayMemory(int size) {
+        cells = new int[size];
+      }
+
+      @Override
+      public int size() {
+        return cells.length;
+      }
+
+      @Override
+      public int get(int address) {
+        return cells[address];
+      }
+
+      @Override
+      public void set(int address, int value) {
+        cells[address] = value;
+      }
+
+      @Override
+      public int[] read(int from, int length) {
+        return Arrays.copyOfRange(cells, from, from + length);
+      }
+
+      @Override
+      public void write(int address, int[] values) {
+        System.arraycopy(values, 0, cells, address, values.length);
+      }
+
+      @Override
+      public void clear() {
+        Arrays.fill(cells, 0);
+      }
+    }
+
+    private static final class BufferMemory extends Memory {
+      private final IntBuffer cells;
+
+      BufferMemory(IntBuffer cells) {
+        this.cells = cells;
+      }
+
+      @Override
+      public int size() {
+        return cells.capacity();
+      }
+
+      @Override
+      public int get(int address) {
+        return cells.get(address);
+      }
+
+      @Override
+      public void set(int address, int value) {
+        cells.put(address, value);
+      }
+
+      @Override
+      public int[] read(int from, int length) {
+        int[] values = new int[length];
+        cells.duplicate().position(from).get(values); // get(int, int[]) assoluto solo da JDK 13
+        return values;
+      }
+
+      @Override
+      public void write(int address, int[] values) {
+        cells.duplicate().position(address).put(values);
+      }
+
+      @Override
+      public void clear() {
+        for (int i = 0; i < cells.capacity(); i++) cells.put(i, 0);
+      }
+    }
+
+}
@@ -0,0 +1,99 @@
+package svm;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// profiler a campionamento: esegue il programma a fette (vedi ExecuteVM.run) e alla fine di ognuna
+// registra lo stack delle chiamate FOOL, ricostruito risalendo i control link a partire da fp.
+// L'interprete non e' strumentato: il costo e' solo quello dei campioni. La lunghezza delle fette e'
+// casuale intorno all'intervallo richiesto, per non campionare sempre lo stesso punto di un ciclo.
+// Gli stack sono scritti nel formato "collapsed" dei flame graph ("main;f;g 42")
+public class Profiler {
+
+    private static final int MAX_DEPTH = 10000; // oltre, la catena dei frame e' considerata corrotta
+
+    private final Executable program;
+    private final long interval;
+    private final boolean lines;
+    private final Random random = new Random(0);
+    private final Map<String,Long> samples = new HashMap<>();
+    private long total = 0;
+
+    // interval: salti e chiamate in media tra due campioni; lines: aggiunge a ogni funzione la riga
+    // del sorgente in esecuzione (es. "f:12")
+    public Profiler(Executable program, long interval, boolean lines) {
+      if (interval < 1) throw new IllegalArgumentException("Sampling interval must be at least 1");
+      if (!program.verified()) throw new IllegalArgumentException("Profiling requires verified code");
+      this.program = program;
+      this.interval = interval;
+      this.lines = lines;
+    }
+
+    // esegue il programma fino alla fine, campionando
+    public void run(ExecuteVM vm) {
+      while (!vm.run(1 + (long) (random.nextDouble() * 2 * interval))) sample(vm);
+    }
+
+    private void sample(ExecuteVM vm) {
+      samples.merge(stack(vm), 1L, Long::sum);
+      total++;
+    }
+
+    // stack delle chiamate, dalla radice (main) alla funzione in esecuzione
+    private String stack(ExecuteVM vm) {
+      List<String> frames = new ArrayList<>();
+      Memory memory = vm.memory();
+      int at = vm.ip();
+      int fp = vm.fp();
+      int entry = program.functionContaining(at);
+      if (entry == at && entry != 0) { // appena chiamata: fp e' ancora quello del chiamante
+        frames.add(frame(entry, at));
+        at = vm.ra() - 1; // il js della chiamata
+        entry = program.functionContaining(at);
+      }
+      while (entry != 0 && frames.size() < MAX_DEPTH) {
+        frames.add(frame(entry, at));
+        int parameters = program.sourceMap.parameters(entry);
+        // frame: access link a fp, parametri sopra, control link dopo i parametri; indirizzo di ritorno a fp-1
+        if (parameters < 0 || fp - 1 < 0 || fp + parameters + 1 >= memory.size()) {
+          frames.add("[unknown]");
+          Collections.reverse(frames);
+          return String.join(";", frames);
+        }
+        at = memory.get(fp - 1) - 1;
+        fp = memory.get(fp + parameters + 1);
+        entry = program.functionContaining(at);
+      }
+      frames.add(frame(0, at));
+      Collections.reverse(frames);
+      return String.join(";", frames);
+    }
+
+    private String frame(int entry, int at) {
+      String name = program.functionAt(entry);
+      int line = program.sourceMap.line(at);
+      return lines && line >= 0 ? name + ":" + line : name;
+    }
+
+    public long samples() {
+      return total;
+    }
+
+    // campioni per stack
+    public Map<String,Long> stacks() {
+      return Collections.unmodifiableMap(samples);
+    }
+
+    // formato collapsed, una riga per stack in ordine alfabetico (ingresso di flamegraph.pl e simili)
+    public void writeCollapsed(PrintStream out) {
+      samples.entrySet().stream()
+          .sorted(Map.Entry.comparingByKey())
+          .forEach(e -> out.println(e.getKey() + " " + e.getValue()));
+    }
+
+}
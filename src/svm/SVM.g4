@@ -10,20 +10,55 @@ public int lexicalErrors=0;
    
 @parser::members { 
 public int[] code = new int[ExecuteVM.CODESIZE];    
+public int[] data = new int[ExecuteVM.MEMSIZE]; // segmento dati, caricato in memoria da indirizzo 0
+public int[] lines = new int[ExecuteVM.CODESIZE]; // riga del sorgente assembly di ogni parola di codice
+public int[] sourceLines = new int[ExecuteVM.CODESIZE]; // riga e colonna del sorgente FOOL (-1 se non nota)
+public int[] sourceColumns = new int[ExecuteVM.CODESIZE];
+private int sourceLine = -1;
+private int sourceColumn = -1;
+private Map<String,String> names = new HashMap<>(); // nome nel sorgente delle funzioni, per etichetta
+private Map<String,Integer> parameters = new HashMap<>(); // numero di parametri delle funzioni, per etichetta
+private Map<Integer,String> classes = new HashMap<>(); // classe allocata da ogni new, per indirizzo dell'istruzione
 private int i = 0;
+private int d = 0;
 private Map<String,Integer> labelDef = new HashMap<>();
 private Map<Integer,String> labelRef = new HashMap<>();
+private Map<Integer,String> dataRef = new HashMap<>();
+private Set<Integer> entries = new TreeSet<>(); // etichette usate come valori: ingressi di funzioni e metodi
+public Map<String,Integer> labels() { return labelDef; }
+public int codeLength() { return i; } // parole di codice assemblate
+public Set<Integer> entries() { return entries; }
+public Map<String,String> names() { return names; }
+public Map<String,Integer> parameters() { return parameters; }
+public Map<Integer,String> classes() { return classes; }
+
+private int resolve(String label) {
+  Integer address = labelDef.get(label);
+  if (address != null) return address;
+  notifyErrorListeners("undefined label " + label);
+  return -1;
+}
 }
 
 /*------------------------------------------------------------------
  * PARSER RULES
  *------------------------------------------------------------------*/
    
-assembly: instruction* EOF 	{ for (Integer j: labelRef.keySet()) 
-								code[j]=labelDef.get(labelRef.get(j)); 
+assembly: instruction* EOF 	{ for (Integer j: labelRef.keySet()) {
+								code[j]=resolve(labelRef.get(j)); 
+								if (code[j-1] == PUSH) entries.add(code[j]);
+							  }
+							  for (Integer j: dataRef.keySet()) 
+								entries.add(data[j]=resolve(dataRef.get(j))); 
+							  data = Arrays.copyOf(data, d);
 							} ;
 
-instruction : 
+instruction 
+@init { int first = i; }
+@after { Arrays.fill(lines, first, i, $start.getLine());
+         Arrays.fill(sourceLines, first, i, sourceLine);
+         Arrays.fill(sourceColumns, first, i, sourceColumn); }
+      : 
         PUSH n=INTEGER   {code[i++] = PUSH; 
 			              code[i++] = Integer.parseInt($n.text);}
 	  | PUSH l=LABEL    {code[i++] = PUSH; 
@@ -35,7 +70,7 @@ instruction :
 	  | DIV		    {code[i++] = DIV;}
 	  | STOREW	  {code[i++] = STOREW;} //
 	  | LOADW           {code[i++] = LOADW;} //
-	  | l=LABEL COL     {labelDef.put($l.text,i);}
+	  | l=LABEL COL     {if (labelDef.put($l.text,i) != null) notifyErrorListeners($l, "label " + $l.text + " already defined", null);}
 	  | BRANCH l=LABEL  {code[i++] = BRANCH;
                        labelRef.put(i++,$l.text);}
 	  | BRANCHEQ l=LABEL {code[i++] = BRANCHEQ;
@@ -52,8 +87,24 @@ instruction :
 	  | COPYFP          {code[i++] = COPYFP;}   //
 	  | LOADHP          {code[i++] = LOADHP;}   //
 	  | STOREHP         {code[i++] = STOREHP;}   //
+	  | LOADDISPLAY n=INTEGER    {code[i++] = LOADDISPLAY;
+			              code[i++] = Integer.parseInt($n.text);}
+	  | STOREDISPLAY n=INTEGER   {code[i++] = STOREDISPLAY;
+			              code[i++] = Integer.parseInt($n.text);}
+	  | RESTOREDISPLAY n=INTEGER {code[i++] = RESTOREDISPLAY;
+			              code[i++] = Integer.parseInt($n.text);}
 	  | PRINT           {code[i++] = PRINT;}
 	  | HALT            {code[i++] = HALT;}
+	  | NEW n=INTEGER dp=INTEGER {code[i++] = NEW; // numero di campi e dispatch pointer
+			              code[i++] = Integer.parseInt($n.text);
+			              code[i++] = Integer.parseInt($dp.text);}
+	  | DATA n=INTEGER  {data[d++] = Integer.parseInt($n.text);} // parola successiva del segmento dati
+	  | DATA l=LABEL    {dataRef.put(d++,$l.text);}
+	  | LINE l=INTEGER c=INTEGER {sourceLine = Integer.parseInt($l.text); // posizione nel sorgente FOOL
+			              sourceColumn = Integer.parseInt($c.text);} // delle istruzioni successive
+	  | NAME l=LABEL s=STRING n=INTEGER {names.put($l.text, $s.text.substring(1, $s.text.length() - 1));
+			              parameters.put($l.text, Integer.parseInt($n.text));}
+	  | CLASS s=STRING {classes.put(i, $s.text.substring(1, $s.text.length() - 1));} // classe della new successiva
 	  ;
 	  
 /*------------------------------------------------------------------
@@ -81,12 +132,21 @@ STOREFP	 : 'sfp' ;
 COPYFP   : 'cfp' ;      
 LOADHP	 : 'lhp' ;	
 STOREHP	 : 'shp' ;	
+LOADDISPLAY : 'ldisp' ;
+STOREDISPLAY : 'sdisp' ;
+RESTOREDISPLAY : 'rdisp' ;
 PRINT	 : 'print' ;	
 HALT	 : 'halt' ;	
+DATA	 : 'data' ;	
+NEW	 : 'new' ;	
+LINE	 : 'line' ;	
+NAME	 : 'name' ;	
+CLASS	 : 'class' ;	
  
 COL	 : ':' ;
 LABEL	 : ('a'..'z'|'A'..'Z')('a'..'z' | 'A'..'Z' | '0'..'9')* ;
 INTEGER	 : '0' | ('-')?(('1'..'9')('0'..'9')*) ;
+STRING	 : '"' ~["\r\n]* '"' ;
 
 WHITESP  : (' '|'\t'|'\n'|'\r')+ -> channel(HIDDEN) ;
 
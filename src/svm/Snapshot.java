@@ -0,0 +1,107 @@
+package svm;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// stato completo di una VM (registri, display e memoria), da cui possono ripartire piu' esecuzioni
+// dello stesso programma. Della memoria sono conservati solo heap [0,hp) e stack [sp,size):
+// le celle intermedie non sono mai lette prima di essere scritte.
+public class Snapshot {
+
+    private static final int MAGIC = 0x53564d53; // "SVMS"
+    private static final int VERSION = 1;
+    private static final int HEADER = 14; // interi prima di display e memoria
+
+    final int[] code; // programma da cui e' stato preso (null se letto da file)
+    final int codeHash;
+    final int size; // celle della memoria
+    final int ip, sp, hp, fp, ra, tm;
+    final boolean halted;
+    final long jumps;
+    final int[] display;
+    final int[] displaySaved;
+    final int[] heap;
+    final int[] stack;
+
+    Snapshot(int[] code, int codeHash, int size, int ip, int sp, int hp, int fp, int ra, int tm, boolean halted,
+             long jumps, int[] display, int[] displaySaved, int[] heap, int[] stack) {
+      this.code = code;
+      this.codeHash = codeHash;
+      this.size = size;
+      this.ip = ip;
+      this.sp = sp;
+      this.hp = hp;
+      this.fp = fp;
+      this.ra = ra;
+      this.tm = tm;
+      this.halted = halted;
+      this.jumps = jumps;
+      this.display = display;
+      this.displaySaved = displaySaved;
+      this.heap = heap;
+      this.stack = stack;
+    }
+
+    // esegue il programma fino all'etichetta data (esclusa) e ne ritorna lo stato: il codice e' eseguito
+    // da una copia con halt all'indirizzo dell'etichetta, senza rallentare l'interprete
+    public static Snapshot at(Executable program, String label, PrintStream out) {
+      return at(program, label, Memory.array(ExecuteVM.MEMSIZE), out);
+    }
+
+    public static Snapshot at(Executable program, String label, Memory memory, PrintStream out) {
+      Integer address = program.labels.get(label);
+      if (address == null) throw new IllegalArgumentException("Unknown label " + label);
+      int[] patched = program.code.clone();
+      patched[address] = SVMParser.HALT;
+      ExecuteVM vm = new ExecuteVM(patched, program.data, memory, out);
+      vm.cpu();
+      if (vm.ip() != address + 1) throw new IllegalStateException("Program halted before reaching " + label);
+      return vm.snapshot(program.code, address, false); // riparte dall'istruzione sostituita
+    }
+
+    // i file sono scritti e letti tramite memory mapping, copiando solo le parti usate della memoria
+    public void save(Path file) throws IOException {
+      long bytes = 4L * (HEADER + display.length + displaySaved.length + heap.length + stack.length);
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        IntBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes).asIntBuffer();
+        buffer.put(new int[]{MAGIC, VERSION, size, codeHash, ip, sp, hp, fp, ra, tm,
+            halted ? 1 : 0, (int) (jumps >>> 32), (int) jumps, displaySaved.length});
+        buffer.put(display).put(displaySaved).put(heap).put(stack);
+      }
+    }
+
+    // un file corrotto da' IOException prima di allocare: le lunghezze dell'header devono
+    // corrispondere esattamente al resto del file
+    public static Snapshot load(Path file) throws IOException {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        if (channel.size() > Integer.MAX_VALUE) throw new IOException(file + " is not a SVM snapshot");
+        IntBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asIntBuffer();
+        int[] header = new int[HEADER];
+        if (buffer.remaining() < HEADER) throw new IOException(file + " is not a SVM snapshot");
+        buffer.get(header);
+        if (header[0] != MAGIC || header[1] != VERSION) throw new IOException(file + " is not a SVM snapshot");
+        int size = header[2], sp = header[5], hp = header[6], saved = header[13];
+        if (size <= 0 || hp < 0 || hp > sp || sp > size || saved < 0
+            || buffer.remaining() != (long) ExecuteVM.DISPLAYSIZE + saved + hp + (size - sp))
+          throw new IOException(file + " is a corrupt SVM snapshot");
+        int[] display = new int[ExecuteVM.DISPLAYSIZE];
+        int[] displaySaved = new int[saved];
+        int[] heap = new int[hp];
+        int[] stack = new int[size - sp];
+        buffer.get(display).get(displaySaved).get(heap).get(stack);
+        return new Snapshot(null, header[3], size, header[4], sp, hp, header[7], header[8], header[9], header[10] != 0,
+            (long) header[11] << 32 | header[12] & 0xffffffffL, display, displaySaved, heap, stack);
+      }
+    }
+
+    boolean matches(int[] code) {
+      return this.code == code || codeHash == Arrays.hashCode(code);
+    }
+
+}
@@ -0,0 +1,84 @@
+package svm;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// posizione nel sorgente di ogni parola di codice: riga del file assembly e riga/colonna del sorgente
+// FOOL (dalle direttive "line" emesse dal compilatore), nome nel sorgente e numero di parametri
+// di ogni funzione ("name") e classe degli oggetti allocati da ogni new ("class")
+public class SourceMap {
+
+    public static final SourceMap EMPTY = new SourceMap(new int[0], new int[0], new int[0], Collections.emptyMap(),
+        Collections.emptyMap(), Collections.emptyMap());
+
+    private final int[] asmLines;
+    private final int[] lines;
+    private final int[] columns;
+    private final Map<Integer,String> names; // per indirizzo di ingresso
+    private final Map<Integer,Integer> parameters;
+    private final Map<Integer,String> classes; // per indirizzo dell'istruzione new
+
+    public SourceMap(int[] asmLines, int[] lines, int[] columns, Map<Integer,String> names, Map<Integer,Integer> parameters,
+        Map<Integer,String> classes) {
+      this.asmLines = asmLines;
+      this.lines = lines;
+      this.columns = columns;
+      this.names = Collections.unmodifiableMap(names);
+      this.parameters = Collections.unmodifiableMap(parameters);
+      this.classes = Collections.unmodifiableMap(classes);
+    }
+
+    public SourceMap(SVMParser parser) {
+      this(Arrays.copyOf(parser.lines, parser.codeLength()), Arrays.copyOf(parser.sourceLines, parser.codeLength()),
+          Arrays.copyOf(parser.sourceColumns, parser.codeLength()), resolve(parser, parser.names()),
+          resolve(parser, parser.parameters()), parser.classes());
+    }
+
+    // da etichetta a indirizzo
+    private static <T> Map<Integer,T> resolve(SVMParser parser, Map<String,T> byLabel) {
+      Map<Integer,T> byAddress = new HashMap<>();
+      byLabel.forEach((label, value) -> {
+        Integer address = parser.labels().get(label);
+        if (address != null) byAddress.put(address, value);
+      });
+      return byAddress;
+    }
+
+    // riga nel file assembly, -1 se non nota
+    public int asmLine(int address) {
+      return address >= 0 && address < asmLines.length ? asmLines[address] : -1;
+    }
+
+    // riga nel sorgente FOOL, -1 se non nota
+    public int line(int address) {
+      return address >= 0 && address < lines.length ? lines[address] : -1;
+    }
+
+    public int column(int address) {
+      return address >= 0 && address < columns.length ? columns[address] : -1;
+    }
+
+    // "riga:colonna" nel sorgente FOOL, null se non nota
+    public String position(int address) {
+      return line(address) < 0 ? null : line(address) + ":" + column(address);
+    }
+
+    // nome nel sorgente della funzione che inizia all'indirizzo dato, null se non noto
+    public String name(int address) {
+      return names.get(address);
+    }
+
+    // classe degli oggetti allocati dall'istruzione new all'indirizzo dato, null se non nota (le classi
+    // che condividono la dispatch table hanno lo stesso dispatch pointer, che quindi non la identifica)
+    public String className(int site) {
+      return classes.get(site);
+    }
+
+    // numero di parametri della funzione che inizia all'indirizzo dato, -1 se non noto
+    public int parameters(int address) {
+      return parameters.getOrDefault(address, -1);
+    }
+
+}
@@ -0,0 +1,55 @@
+package svm;
+
+// errore durante l'esecuzione: la VM si ferma e lascia lo stato com'era all'istruzione che lo ha causato
+public class VMFault extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Code {
+      DIVISION_BY_ZERO,
+      BAD_ADDRESS,      // accesso fuori memoria (es. campo o dispatch pointer di null, all'indirizzo -1)
+      BAD_JUMP,         // js verso un indirizzo fuori dal codice
+      ILLEGAL_OPCODE,
+      STACK_OVERFLOW,   // lo stack della funzione chiamata raggiungerebbe lo heap
+      STACK_UNDERFLOW,  // pop oltre il fondo dello stack
+      OUT_OF_MEMORY     // l'oggetto creato da new raggiungerebbe lo stack
+    }
+
+    public final Code code;
+    public final int ip;   // indirizzo dell'istruzione
+    public final int line; // riga del sorgente assembly, -1 se non nota
+    public final int sourceLine, sourceColumn; // posizione nel sorgente FOOL, -1 se non nota
+    public final String function; // funzione in esecuzione
+    public final int sp, hp, fp, ra, tm;
+
+    VMFault(Code code, String detail, int ip, Executable program, int sp, int hp, int fp, int ra, int tm, Throwable cause) {
+      super(describe(code, detail, ip, program), cause);
+      this.code = code;
+      this.ip = ip;
+      this.line = program.sourceMap.asmLine(ip);
+      this.sourceLine = program.sourceMap.line(ip);
+      this.sourceColumn = program.sourceMap.column(ip);
+      this.function = program.functionAt(program.functionContaining(ip));
+      this.sp = sp;
+      this.hp = hp;
+      this.fp = fp;
+      this.ra = ra;
+      this.tm = tm;
+    }
+
+    // es. "BAD_ADDRESS at ip 15 in main (source 7:12, asm line 13): address -1"
+    private static String describe(Code code, String detail, int ip, Executable program) {
+      StringBuilder s = new StringBuilder(code + " at ip " + ip + " in " + program.functionAt(program.functionContaining(ip)));
+      String position = program.sourceMap.position(ip);
+      int asmLine = program.sourceMap.asmLine(ip);
+      if (position != null) s.append(" (source ").append(position).append(asmLine < 0 ? ")" : ", asm line " + asmLine + ")");
+      else if (asmLine >= 0) s.append(" (asm line ").append(asmLine).append(")");
+      if (detail != null) s.append(": ").append(detail);
+      return s.toString();
+    }
+
+    public String registers() {
+      return "ip=" + ip + " sp=" + sp + " hp=" + hp + " fp=" + fp + " ra=" + ra + " tm=" + tm;
+    }
+
+}
@@ -0,0 +1,220 @@
+package svm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// esegue molti programmi assemblati in modo concorrente su un numero limitato di thread: il codice
+// e' condiviso tra le esecuzioni (la VM non lo modifica), la memoria delle VM e' riusata da un pool
+// e l'output di ogni esecuzione e' catturato separatamente.
+// Ogni esecuzione procede a fette di SLICE salti/chiamate (vedi ExecuteVM.run): alla fine di una fetta
+// torna in coda all'executor, per cui i thread si alternano tra tutte le esecuzioni attive, e vengono
+// controllati i limiti dell'esecuzione e l'eventuale cancellazione (Future.cancel). Le esecuzioni
+// attive sono al piu' ACTIVE_PER_THREAD per thread, le altre attendono senza occupare memoria.
+public class VMRunner implements AutoCloseable {
+
+    public static final long SLICE = 100000;
+    public static final int ACTIVE_PER_THREAD = 4;
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    public enum Status {
+      HALTED,          // terminata con halt
+      FAULTED,         // errore del programma (VMFault, es. accesso fuori memoria)
+      FAILED,          // errore imprevisto della VM
+      JUMP_LIMIT,      // superato il numero massimo di salti/chiamate
+      TIME_LIMIT       // superata la durata massima
+    }
+
+    // esito di un'esecuzione
+    public static class Result {
+      public final Status status;
+      public final String output;     // righe stampate dal programma
+      public final long nanos;        // durata, dall'inizio della prima fetta
+      public final long jumps;        // salti e chiamate eseguiti
+      public final Throwable failure; // l'errore, se FAULTED (un VMFault) o FAILED
+
+      Result(Status status, String output, long nanos, long jumps, Throwable failure) {
+        this.status = status;
+        this.output = output;
+        this.nanos = nanos;
+        this.jumps = jumps;
+        this.failure = failure;
+      }
+    }
+
+    private final ExecutorService executor;
+    private final ConcurrentLinkedQueue<Memory> memories = new ConcurrentLinkedQueue<>(); // una per esecuzione attiva
+    private final Set<CompletableFuture<Result>> pending = ConcurrentHashMap.newKeySet();
+    private final Queue<Run> waiting = new ArrayDeque<>(); // esecuzioni non ancora iniziate
+    private final int maxActive;
+    private int active = 0;
+
+    public VMRunner(int threads) {
+      executor = Executors.newFixedThreadPool(threads);
+      maxActive = ACTIVE_PER_THREAD * threads;
+    }
+
+    public VMRunner() {
+      this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public CompletableFuture<Result> submit(Executable program) {
+      return submit(program, UNLIMITED, UNLIMITED);
+    }
+
+    // maxJumps: salti e chiamate consentiti; maxNanos: durata consentita (controllata a fine fetta)
+    public CompletableFuture<Result> submit(Executable program, long maxJumps, long maxNanos) {
+      return submit(program, null, maxJumps, maxNanos);
+    }
+
+    // l'esecuzione riparte dallo stato "from" (null: dall'inizio del programma)
+    public CompletableFuture<Result> submit(Executable program, Snapshot from, long maxJumps, long maxNanos) {
+      if (maxJumps < 1 || maxNanos < 1) throw new IllegalArgumentException("Execution limits must be positive");
+      if (from != null && !from.matches(program.code)) throw new IllegalArgumentException("Snapshot of a different program");
+      if (from != null && from.size != ExecuteVM.MEMSIZE) throw new IllegalArgumentException("Snapshot of a memory of " + from.size + " cells");
+      Run run = new Run(program, from, maxJumps, maxNanos);
+      pending.add(run.result);
+      run.result.whenComplete((r, e) -> pending.remove(run.result));
+      synchronized (this) {
+        waiting.add(run);
+      }
+      admit();
+      return run.result;
+    }
+
+    private void admit() {
+      List<Run> admitted = new ArrayList<>();
+      synchronized (this) {
+        while (active < maxActive && !waiting.isEmpty()) {
+          active++;
+          admitted.add(waiting.remove());
+        }
+      }
+      for (Run run : admitted) executor.execute(run::slice);
+    }
+
+    // esegue tutti i programmi e ne ritorna gli esiti nello stesso ordine
+    public List<Result> runAll(List<Executable> programs) {
+      return runAll(programs, UNLIMITED, UNLIMITED);
+    }
+
+    public List<Result> runAll(List<Executable> programs, long maxJumps, long maxNanos) {
+      List<CompletableFuture<Result>> futures = new ArrayList<>();
+      for (Executable program : programs) futures.add(submit(program, maxJumps, maxNanos));
+      List<Result> results = new ArrayList<>();
+      for (CompletableFuture<Result> future : futures) results.add(future.join());
+      return results;
+    }
+
+    // esegue "runs" volte il programma a partire dallo stesso stato
+    public List<Result> fork(Executable program, Snapshot from, int runs, long maxJumps, long maxNanos) {
+      List<CompletableFuture<Result>> futures = new ArrayList<>();
+      for (int i = 0; i < runs; i++) futures.add(submit(program, from, maxJumps, maxNanos));
+      List<Result> results = new ArrayList<>();
+      for (CompletableFuture<Result> future : futures) results.add(future.join());
+      return results;
+    }
+
+    // stato di un'esecuzione tra una fetta e la successiva
+    private class Run {
+      final CompletableFuture<Result> result = new CompletableFuture<>();
+      final long maxJumps;
+      final long maxNanos;
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      final PrintStream out = new PrintStream(output);
+      final Executable program;
+      final Snapshot from;
+      Memory memory;
+      ExecuteVM vm; // creata alla prima fetta
+      long start;
+      long initialJumps; // eseguiti prima dello stato di partenza
+
+      Run(Executable program, Snapshot from, long maxJumps, long maxNanos) {
+        this.program = program;
+        this.from = from;
+        this.maxJumps = maxJumps;
+        this.maxNanos = maxNanos;
+      }
+
+      void slice() {
+        if (result.isDone()) { // cancellata
+          end();
+          return;
+        }
+        boolean halted;
+        try {
+          if (vm == null) start();
+          halted = vm.run(Math.min(SLICE, maxJumps - jumps()));
+        } catch (VMFault e) {
+          finish(Status.FAULTED, e);
+          return;
+        } catch (Throwable e) { // anche gli Error (es. OutOfMemoryError in start), o active non scende e close() si blocca
+          finish(Status.FAILED, e);
+          return;
+        }
+        if (halted) finish(Status.HALTED, null);
+        else if (jumps() >= maxJumps) finish(Status.JUMP_LIMIT, null);
+        else if (System.nanoTime() - start >= maxNanos) finish(Status.TIME_LIMIT, null);
+        else executor.execute(this::slice);
+      }
+
+      // la costruzione della VM puo' fallire (es. memoria insufficiente per il main): l'esecuzione
+      // termina comunque con un esito, e la memoria torna al pool
+      void start() {
+        start = System.nanoTime();
+        memory = acquire();
+        vm = from == null
+            ? new ExecuteVM(program, memory, out)
+            : new ExecuteVM(program, from, memory, out);
+        initialJumps = vm.executedJumps();
+      }
+
+      void finish(Status status, Throwable failure) {
+        long nanos = System.nanoTime() - start;
+        out.flush();
+        result.complete(new Result(status, output.toString(), nanos, jumps(), failure));
+        end();
+      }
+
+      long jumps() {
+        return vm == null ? 0 : vm.executedJumps() - initialJumps;
+      }
+
+      // libera la memoria e lascia il posto a un'esecuzione in attesa
+      void end() {
+        if (memory != null) release(memory);
+        synchronized (VMRunner.this) {
+          active--;
+        }
+        admit();
+      }
+    }
+
+    private Memory acquire() {
+      Memory memory = memories.poll();
+      return memory != null ? memory : Memory.array(ExecuteVM.MEMSIZE);
+    }
+
+    private void release(Memory memory) {
+      memory.clear(); // ogni esecuzione parte da memoria azzerata
+      memories.offer(memory);
+    }
+
+    // attende la fine delle esecuzioni gia' sottomesse e non cancellate
+    @Override
+    public void close() {
+      for (CompletableFuture<Result> future : new ArrayList<>(pending))
+        future.handle((r, e) -> null).join();
+      executor.shutdown();
+    }
+
+}
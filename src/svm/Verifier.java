@@ -0,0 +1,343 @@
+package svm;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+// verifica del codice al caricamento. L'interprete non controlla opcode, operandi e destinazioni
+// dei salti: sul codice verificato quei controlli non servono, e gli errori sono segnalati qui con
+// l'indirizzo dell'istruzione invece che come comportamento indefinito durante l'esecuzione.
+// Le destinazioni di js sono calcolate a runtime e restano fuori dalla verifica.
+// Per il codice valido calcola anche la massima altezza dello stack di ogni funzione, che la VM
+// confronta con lo spazio libero una volta per chiamata invece che a ogni push. Lo spazio riservato
+// cosi' puo' pero' essere occupato dallo heap: per questo sono calcolate anche l'altezza che resta da
+// raggiungere dopo ogni new e dopo ogni ritorno da una chiamata (in cui il chiamato puo' aver allocato)
+public class Verifier {
+
+    private final int[] code;
+    private final int length;
+    private final int[] data;
+    private final List<String> errors = new ArrayList<>();
+
+    private final BitSet starts = new BitSet(); // indirizzi di inizio istruzione
+    private final BitSet leaders = new BitSet(); // indirizzi di inizio dei blocchi base
+    private final List<Block> blocks = new ArrayList<>();
+    private Block[] blockAt; // blocco che inizia a ogni leader
+
+    private Verifier(Executable program) {
+      code = program.code;
+      length = program.length;
+      data = program.data;
+    }
+
+    // ritorna gli errori trovati (lista vuota se il codice e' valido)
+    public static List<String> verify(Executable program) {
+      Verifier verifier = new Verifier(program);
+      if (verifier.decode(program)) {
+        verifier.buildBlocks();
+        verifier.checkStack();
+        if (verifier.errors.isEmpty()) verifier.computeStackDepths(program);
+      }
+      return verifier.errors;
+    }
+
+    // blocco base: istruzioni in [start, end) eseguite in sequenza
+    static class Block {
+      final int start;
+      final int index;
+      int end;
+      int effect; // variazione dell'altezza dello stack
+      int peak; // massima altezza raggiunta, rispetto all'ingresso
+      int need; // elementi che devono essere sullo stack all'ingresso
+      int needAt; // istruzione che li richiede
+      int depth = Integer.MAX_VALUE; // limite inferiore dell'altezza all'ingresso (dal main)
+      final List<Block> successors = new ArrayList<>();
+      Block returnPoint; // dove riprende il chiamante, se il blocco termina con una chiamata
+
+      Block(int start, int index) {
+        this.start = start;
+        this.index = index;
+      }
+    }
+
+    // numero di operandi di ogni istruzione, -1 se l'opcode non esiste
+    static int operands(int opcode) {
+      switch (opcode) {
+        case SVMParser.PUSH:
+        case SVMParser.BRANCH:
+        case SVMParser.BRANCHEQ:
+        case SVMParser.BRANCHLESSEQ:
+        case SVMParser.LOADDISPLAY:
+        case SVMParser.STOREDISPLAY:
+        case SVMParser.RESTOREDISPLAY:
+          return 1;
+        case SVMParser.NEW:
+          return 2;
+        case SVMParser.POP: case SVMParser.ADD: case SVMParser.SUB: case SVMParser.MULT: case SVMParser.DIV:
+        case SVMParser.STOREW: case SVMParser.LOADW: case SVMParser.JS:
+        case SVMParser.LOADRA: case SVMParser.STORERA: case SVMParser.LOADTM: case SVMParser.STORETM:
+        case SVMParser.LOADFP: case SVMParser.STOREFP: case SVMParser.COPYFP:
+        case SVMParser.LOADHP: case SVMParser.STOREHP: case SVMParser.PRINT: case SVMParser.HALT:
+          return 0;
+        default:
+          return -1;
+      }
+    }
+
+    // elementi letti dallo stack dall'istruzione all'indirizzo dato
+    int pops(int address) {
+      switch (code[address]) {
+        case SVMParser.ADD: case SVMParser.SUB: case SVMParser.MULT: case SVMParser.DIV:
+        case SVMParser.STOREW: case SVMParser.BRANCHEQ: case SVMParser.BRANCHLESSEQ:
+          return 2;
+        case SVMParser.POP: case SVMParser.LOADW: case SVMParser.JS: case SVMParser.STORERA:
+        case SVMParser.STORETM: case SVMParser.STOREFP: case SVMParser.STOREHP: case SVMParser.STOREDISPLAY:
+          return 1;
+        case SVMParser.NEW:
+          return code[address + 1];
+        default:
+          return 0;
+      }
+    }
+
+    // elementi scritti sullo stack dopo aver tolto quelli letti
+    int pushes(int address) {
+      switch (code[address]) {
+        case SVMParser.PUSH: case SVMParser.ADD: case SVMParser.SUB: case SVMParser.MULT: case SVMParser.DIV:
+        case SVMParser.LOADW: case SVMParser.LOADRA: case SVMParser.LOADTM: case SVMParser.LOADFP:
+        case SVMParser.LOADHP: case SVMParser.LOADDISPLAY: case SVMParser.NEW:
+          return 1;
+        default:
+          return 0;
+      }
+    }
+
+    static boolean isBranch(int opcode) {
+      return opcode == SVMParser.BRANCH || opcode == SVMParser.BRANCHEQ || opcode == SVMParser.BRANCHLESSEQ;
+    }
+
+    // l'esecuzione non prosegue all'istruzione successiva (dopo js riprende solo al ritorno)
+    static boolean endsFlow(int opcode) {
+      return opcode == SVMParser.BRANCH || opcode == SVMParser.JS || opcode == SVMParser.HALT;
+    }
+
+    private void error(int address, String message) {
+      errors.add("address " + address + ": " + message);
+    }
+
+    // scansione lineare: opcode, operandi, destinazioni dei salti e fine del codice
+    private boolean decode(Executable program) {
+      if (length > code.length) {
+        errors.add("code length " + length + " exceeds code size " + code.length);
+        return false;
+      }
+      if (length == 0) {
+        errors.add("empty program");
+        return false;
+      }
+      int ip = 0;
+      while (ip < length) {
+        int opcode = code[ip];
+        int n = operands(opcode);
+        if (n < 0) {
+          error(ip, "unknown opcode " + opcode);
+          return false; // i confini delle istruzioni successive non sono piu' noti
+        }
+        if (ip + n >= length) {
+          error(ip, "missing operand at end of code");
+          return false;
+        }
+        starts.set(ip);
+        ip += 1 + n;
+      }
+      leaders.set(0);
+      for (int address : program.labels.values())
+        if (address < length) leaders.set(address);
+      for (ip = starts.nextSetBit(0); ip >= 0; ip = starts.nextSetBit(ip + 1)) {
+        int opcode = code[ip];
+        int next = ip + 1 + operands(opcode);
+        if (isBranch(opcode)) {
+          int target = code[ip + 1];
+          if (target < 0 || target >= length || !starts.get(target))
+            error(ip, "branch to " + target + ", which is not an instruction");
+          else leaders.set(target);
+        }
+        if (opcode == SVMParser.LOADDISPLAY || opcode == SVMParser.STOREDISPLAY || opcode == SVMParser.RESTOREDISPLAY) {
+          int level = code[ip + 1];
+          if (level < 0 || level >= ExecuteVM.DISPLAYSIZE) error(ip, "display level " + level + " out of range");
+        }
+        if (opcode == SVMParser.NEW) {
+          if (code[ip + 1] < 0) error(ip, "negative field count " + code[ip + 1]);
+          if (code[ip + 2] < 0 || code[ip + 2] > data.length)
+            error(ip, "dispatch pointer " + code[ip + 2] + " outside the data segment");
+        }
+        if (!endsFlow(opcode) && next == length) error(ip, "execution runs past the end of the code");
+        if (isBranch(opcode) || endsFlow(opcode)) leaders.set(next);
+      }
+      return errors.isEmpty();
+    }
+
+    // divide il codice in blocchi base e ne calcola l'effetto sullo stack
+    private void buildBlocks() {
+      blockAt = new Block[length];
+      for (int ip = leaders.nextSetBit(0); ip >= 0 && ip < length; ip = leaders.nextSetBit(ip + 1)) {
+        Block block = new Block(ip, blocks.size());
+        blocks.add(block);
+        blockAt[ip] = block;
+      }
+      for (Block block : blocks) {
+        int ip = block.start;
+        int height = 0;
+        int previous = -1;
+        while (true) {
+          int opcode = code[ip];
+          if (height - pops(ip) < -block.need) {
+            block.need = pops(ip) - height;
+            block.needAt = ip;
+          }
+          height += pushes(ip) - pops(ip);
+          block.peak = Math.max(block.peak, height);
+          int next = ip + 1 + operands(opcode);
+          if (isBranch(opcode)) block.successors.add(blockAt[code[ip + 1]]);
+          if (next < length && leaders.get(next) && !endsFlow(opcode)) block.successors.add(blockAt[next]);
+          // "lra js" e' il ritorno al chiamante, ogni altro js e' una chiamata
+          if (opcode == SVMParser.JS && previous != SVMParser.LOADRA && next < length) block.returnPoint = blockAt[next];
+          if (next >= length || leaders.get(next)) {
+            block.end = next;
+            break;
+          }
+          previous = opcode;
+          ip = next;
+        }
+        block.effect = height;
+      }
+    }
+
+    // massima altezza dello stack per il main (indirizzo 0) e per ogni funzione, rispetto a sp
+    // all'ingresso. E' un limite superiore: al ritorno da una chiamata si assume l'altezza che lo stack
+    // aveva al js, dato che il chiamato toglie almeno gli argomenti, l'access link e il control link
+    // che il chiamante aveva messo. Ogni chiamata ha poi la propria altezza, controllata all'ingresso
+    private void computeStackDepths(Executable program) {
+      int bound = 0; // nessun cammino senza cicli supera la somma dei picchi dei blocchi
+      for (Block block : blocks) bound += block.peak;
+      int[] depths = new int[code.length];
+      List<Integer> functions = new ArrayList<>();
+      functions.add(0);
+      functions.addAll(program.entries);
+      for (int entry : functions) {
+        if (entry < 0 || entry >= length || blockAt[entry] == null) {
+          errors.add("function entry " + entry + " is not an instruction");
+          continue;
+        }
+        int depth = maxDepth(blockAt[entry], bound);
+        if (depth < 0) error(entry, "unbounded stack growth in function " + program.functionAt(entry));
+        else depths[entry] = depth;
+      }
+      if (!errors.isEmpty()) return;
+      int[] remaining = remainingDepths(bound);
+      int[] allocations = new int[code.length];
+      for (Block block : blocks) {
+        if (block.returnPoint != null) // un ingresso puo' seguire una chiamata solo in codice scritto a mano
+          depths[block.returnPoint.start] = Math.max(depths[block.returnPoint.start], remaining[block.returnPoint.index]);
+        for (int ip = block.start; ip < block.end; ip += 1 + operands(code[ip]))
+          if (code[ip] == SVMParser.NEW) allocations[ip] = remainingAfter(ip, block, remaining);
+      }
+      program.allocationDepths = allocations;
+      program.stackDepths = depths;
+    }
+
+    // blocchi eseguiti dopo quello dato nella stessa funzione (dopo una chiamata: il punto di ritorno)
+    private static List<Block> next(Block block) {
+      return block.returnPoint == null ? block.successors : List.of(block.returnPoint);
+    }
+
+    // massima altezza che lo stack puo' ancora raggiungere dall'ingresso di ogni blocco, rispetto
+    // all'ingresso (analisi all'indietro). Sui cicli che non fanno crescere lo stack il massimo e' gia'
+    // raggiunto senza ripeterli, quindi entro bound; i cicli che lo fanno crescere sono gia' errori se
+    // raggiungibili, altrimenti il limite ne ferma l'analisi
+    private int[] remainingDepths(int bound) {
+      List<List<Block>> predecessors = new ArrayList<>();
+      for (int i = 0; i < blocks.size(); i++) predecessors.add(new ArrayList<>());
+      for (Block block : blocks)
+        for (Block successor : next(block)) predecessors.get(successor.index).add(block);
+      int[] remaining = new int[blocks.size()];
+      Deque<Block> work = new ArrayDeque<>(blocks);
+      while (!work.isEmpty()) {
+        Block block = work.poll();
+        int depth = block.peak;
+        for (Block successor : next(block)) depth = Math.max(depth, block.effect + remaining[successor.index]);
+        depth = Math.min(depth, bound);
+        if (depth > remaining[block.index]) {
+          remaining[block.index] = depth;
+          work.addAll(predecessors.get(block.index));
+        }
+      }
+      return remaining;
+    }
+
+    // altezza che lo stack puo' ancora raggiungere dopo l'istruzione all'indirizzo dato, rispetto a sp
+    // dopo la sua esecuzione
+    private int remainingAfter(int address, Block block, int[] remaining) {
+      int height = 0;
+      int max = 0;
+      for (int ip = address + 1 + operands(code[address]); ip < block.end; ip += 1 + operands(code[ip])) {
+        height += pushes(ip) - pops(ip);
+        max = Math.max(max, height);
+      }
+      for (Block successor : next(block)) max = Math.max(max, height + remaining[successor.index]);
+      return max;
+    }
+
+    // ritorna -1 se l'altezza cresce senza limite (ciclo che lascia valori sullo stack)
+    private int maxDepth(Block entry, int bound) {
+      int[] in = new int[blocks.size()];
+      Arrays.fill(in, Integer.MIN_VALUE);
+      Deque<Block> work = new ArrayDeque<>();
+      in[entry.index] = 0;
+      work.add(entry);
+      int max = 0;
+      while (!work.isEmpty()) {
+        Block block = work.poll();
+        max = Math.max(max, in[block.index] + block.peak);
+        if (max > bound) return -1;
+        int out = in[block.index] + block.effect;
+        for (Block successor : next(block)) {
+          if (out > in[successor.index]) {
+            in[successor.index] = out;
+            work.add(successor);
+          }
+        }
+      }
+      return max;
+    }
+
+    // l'altezza assoluta dello stack e' nota solo per il codice raggiunto dall'inizio del main senza
+    // passare per js: li' si verifica che nessun blocco legga sotto il fondo dello stack. L'altezza
+    // all'ingresso di un blocco e' il minimo su tutti i cammini (il codice di errore su null e'
+    // raggiunto da altezze diverse)
+    private void checkStack() {
+      Deque<Block> work = new ArrayDeque<>();
+      blockAt[0].depth = 0;
+      work.add(blockAt[0]);
+      BitSet reported = new BitSet();
+      while (!work.isEmpty()) {
+        Block block = work.poll();
+        if (block.depth < block.need) {
+          if (!reported.get(block.needAt)) error(block.needAt, "stack underflow");
+          reported.set(block.needAt);
+          continue;
+        }
+        int out = block.depth + block.effect;
+        for (Block successor : block.successors) {
+          if (out < successor.depth) {
+            successor.depth = out;
+            work.add(successor);
+          }
+        }
+      }
+    }
+
+}
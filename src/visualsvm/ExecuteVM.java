@@ -1,5 +1,6 @@
 package visualsvm;
 
+import svm.Executable;
 import svm.SVMParser;
 
 import java.awt.*;
@@ -15,6 +16,7 @@ public class ExecuteVM {
 
     public static final int MEMSIZE = 10000;
     public static final int CODESIZE = 10000;
+    public static final int DISPLAYSIZE = 100;
 
 	private int[] code;
 	private int[] memory;
@@ -27,6 +29,10 @@ public class ExecuteVM {
 	private int ra;
 	private int fp = MEMSIZE;
 
+	private int[] display = new int[DISPLAYSIZE];
+	private int[] displaySaved = new int[MEMSIZE];
+	private int dsp = 0;
+
 	private final JFrame frame;
 	private final JPanel mainPanel;
 	private final JPanel buttonPanel;
@@ -47,11 +53,29 @@ public class ExecuteVM {
 	private List<String> source;
 
 	public ExecuteVM(int[] code, int[] sourceMap, List<String> source) {
+		this(code, new int[0], sourceMap, source);
+	}
+
+	// mostra il sorgente FOOL al posto dell'assembly: ogni istruzione e' associata alla riga da cui e' generata
+	public ExecuteVM(Executable program, List<String> foolSource) {
+		this(program.code, program.data, foolLines(program), foolSource);
+	}
+
+	private static int[] foolLines(Executable program) {
+		int[] lines = new int[program.code.length];
+		for (int i = 0; i < lines.length; i++) lines[i] = Math.max(0, program.sourceMap.line(i) - 1);
+		return lines;
+	}
+
+	public ExecuteVM(int[] code, int[] data, int[] sourceMap, List<String> source) {
 		
 		this.code = code;
 		this.sourceMap = sourceMap;
 		this.source = source;
 		this.memory = new int[MEMSIZE];
+		System.arraycopy(data, 0, this.memory, 0, data.length); // segmento dati caricato prima dello heap
+		this.hp = data.length;
+		this.display[0] = fp;
 
 		this.frame = new JFrame("FOOL Virtual Machine");
 		this.mainPanel = new JPanel();
@@ -323,11 +347,35 @@ public class ExecuteVM {
 		case SVMParser.STOREHP:
 			hp = pop();
 			break;
+		case SVMParser.LOADDISPLAY:
+			push(display[fetch()]);
+			break;
+		case SVMParser.STOREDISPLAY:
+			address = fetch();
+			displaySaved[dsp++] = display[address];
+			display[address] = pop();
+			break;
+		case SVMParser.RESTOREDISPLAY:
+			display[fetch()] = displaySaved[--dsp];
+			break;
 		case SVMParser.PRINT:
 			final String output = sp == MEMSIZE ? "EMPTY STACK" : Integer.toString(memory[sp]);
 			System.out.println(output);
 			this.outputText.append(output + "\n");
 			break;
+		case SVMParser.NEW:
+			v1 = fetch();
+			v2 = fetch();
+			address = hp + v1;
+			if (address >= sp + v1 - 1) {
+				System.out.println("Out of memory");
+				this.outputText.append("Out of memory\n");
+				return false;
+			}
+			while (hp < address) memory[hp++] = pop();
+			memory[hp++] = v2;
+			push(address);
+			break;
 		case SVMParser.HALT:
 			return false;
 		}
@@ -11,9 +11,18 @@ public int lexicalErrors=0;
 @parser::members {
 public int[] code = new int[ExecuteVM.CODESIZE];
 public int[] sourceMap = new int[ExecuteVM.CODESIZE];
+public int[] data = new int[ExecuteVM.MEMSIZE];
 private int i = 0;
 private Map<String,Integer> labelDef = new HashMap<>();
 private Map<Integer,String> labelRef = new HashMap<>();
+private int d = 0;
+private Map<Integer,String> dataRef = new HashMap<>();
+private int resolve(String label) {
+   	Integer address = labelDef.get(label);
+   	if (address != null) return address;
+   	notifyErrorListeners("undefined label " + label);
+   	return -1;
+}
 private void codem(int line, int ... c) {
    	for (int x : c) {
    		this.code[i] = x;
@@ -27,7 +36,10 @@ private void codem(int line, int ... c) {
  *------------------------------------------------------------------*/
 
 assembly: instruction* EOF 	{ for (Integer j: labelRef.keySet()) 
-								code[j]=labelDef.get(labelRef.get(j)); 
+								code[j]=resolve(labelRef.get(j)); 
+							  for (Integer j: dataRef.keySet()) 
+								data[j]=resolve(dataRef.get(j)); 
+							  data = Arrays.copyOf(data, d);
 							} ;
 
 instruction:
@@ -40,7 +52,7 @@ instruction:
 	  | t=DIV	                 { codem($t.line, DIV); }//pop the two values v1 and v2 (respectively) and push v2/v1
 	  | t=STOREW               { codem($t.line, STOREW); } //pop two values: the second one is written at the memory address pointed by the first one
 	  | t=LOADW                { codem($t.line, LOADW); } //read the content of the memory cell pointed by the top of the stack and replace the top of the stack with such value
-	  | l=LABEL COL          { labelDef.put($l.text, i); } //LABEL points at the location of the subsequent instruction
+	  | l=LABEL COL          { if (labelDef.put($l.text, i) != null) notifyErrorListeners($l, "label " + $l.text + " already defined", null); } //LABEL points at the location of the subsequent instruction
 	  | t=BRANCH l=LABEL       { codem($t.line, BRANCH); labelRef.put(i++,$l.text); } //jump at the instruction pointed by LABEL
 	  | t=BRANCHEQ l=LABEL     { codem($t.line, BRANCHEQ); labelRef.put(i++,$l.text); } //pop two values and jump if they are equal
 	  | t=BRANCHLESSEQ l=LABEL { codem($t.line, BRANCHLESSEQ); labelRef.put(i++,$l.text); } //pop two values and jump if the second one is less or equal to the first one
@@ -54,8 +66,17 @@ instruction:
 	  | t=COPYFP               { codem($t.line, COPYFP); } //copy in the FP register the currest stack pointer    
 	  | t=LOADHP               { codem($t.line, LOADHP); } //push in the stack the content of the HP register    
 	  | t=STOREHP              { codem($t.line, STOREHP); } //pop the top of the stack and copy it in the HP register    
+	  | t=LOADDISPLAY n=INTEGER    { codem($t.line, LOADDISPLAY, Integer.parseInt($n.text)); } //push the frame pointer stored in the display at level NUMBER
+	  | t=STOREDISPLAY n=INTEGER   { codem($t.line, STOREDISPLAY, Integer.parseInt($n.text)); } //save the display entry at level NUMBER and replace it with the popped value
+	  | t=RESTOREDISPLAY n=INTEGER { codem($t.line, RESTOREDISPLAY, Integer.parseInt($n.text)); } //restore the display entry at level NUMBER saved by the last STOREDISPLAY
 	  | t=PRINT                { codem($t.line, PRINT); } //visualize the top of the stack without removing it   
 	  | t=HALT                 { codem($t.line, HALT); } //terminate the execution    
+	  | t=NEW n=INTEGER dp=INTEGER { codem($t.line, NEW, Integer.parseInt($n.text), Integer.parseInt($dp.text)); } //pop NUMBER field values and allocate on the heap an object with them and the dispatch pointer, then push the object pointer
+	  | DATA n=INTEGER         { data[d++] = Integer.parseInt($n.text); } //append NUMBER to the data segment, loaded in memory from address 0
+	  | DATA l=LABEL           { dataRef.put(d++,$l.text); } //append the location address pointed by LABEL to the data segment
+	  | LINE INTEGER INTEGER   //FOOL source line and column of the subsequent instructions (not used by the visual VM)
+	  | NAME LABEL STRING INTEGER //FOOL source name and number of parameters of the function at LABEL (not used by the visual VM)
+	  | CLASS STRING           //FOOL source name of the class allocated by the subsequent NEW (not used by the visual VM)
 	  ;
  	 
 /*------------------------------------------------------------------
@@ -83,12 +104,21 @@ STOREFP	 	: 'sfp' ;
 COPYFP   	: 'cfp' ;      
 LOADHP	 	: 'lhp' ;	
 STOREHP	 	: 'shp' ;	
+LOADDISPLAY	: 'ldisp' ;
+STOREDISPLAY: 'sdisp' ;
+RESTOREDISPLAY: 'rdisp' ;
 PRINT	 	: 'print' ;	
 HALT	 	: 'halt' ;	
+DATA	 	: 'data' ;	
+NEW	 		: 'new' ;	
+LINE	 	: 'line' ;	
+NAME	 	: 'name' ;	
+CLASS	 	: 'class' ;	
 
 COL	 		: ':' ;
 LABEL	 	: ('a'..'z'|'A'..'Z')('a'..'z' | 'A'..'Z' | '0'..'9')* ;
 INTEGER	 	: '0' | ('-')?(('1'..'9')('0'..'9')*) ;
+STRING	 	: '"' ~["\r\n]* '"' ;
 
 COMMENT : '/*' .*? '*/' -> channel(HIDDEN) ;
 